@@ -1,8 +1,11 @@
 package com.zhaohang.java.lang;
 
 import com.zhaohang.java.util.Iterator;
+import com.zhaohang.java.util.Pipeline;
+import com.zhaohang.java.util.Spliterators;
 
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.function.Consumer;
 
 /**
@@ -27,12 +30,40 @@ public interface Iterable<T> {
      * throws: NullPointerException if the specified action is null.
      * Implementation requirements：
      *               The default implements behaves as if:
-     *
+     *               Iterator<T> it = iterator();
+     *               while (it.hasNext())
+     *                   action.accept(it.next());
+     *               Implementations backed by an array or by random access storage should override this method
+     *               with an indexed loop, which allocates no iterator.
      */
-//    default void forEach(Consumer<? super T> action) {
-//        Objects.requireNonNull(action);
-//        for (T t : this) {
-//            action.accept(t);
-//        }
-//    }
+    default void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        Iterator<T> it = iterator();
+        while (it.hasNext()) {
+            action.accept(it.next());
+        }
+    }
+
+    /**
+     * Creates a Spliterator over the elements described by this Iterable.
+     * The default implementation creates an early-binding spliterator from the iterable's Iterator.
+     * The spliterator inherits the fail-fast properties of the iterable's iterator.
+     * Implementation Note: The default implementation should usually be overridden.
+     * The spliterator returned by the default implementation has poor splitting capabilities, is unsized,
+     * and does not report any spliterator characteristics.
+     * @return a Spliterator over the elements described by this Iterable.
+     */
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), 0);
+    }
+
+    /**
+     * Returns a lazy pipeline over the elements of this Iterable, for chaining map, filter, flatMap, limit, skip
+     * and distinct and finishing with a terminal operation such as reduce or collect.
+     * The stages are fused into one push-based loop over this Iterable's iterator; see Pipeline.
+     * @return a pipeline over the elements of this Iterable.
+     */
+    default Pipeline<T> pipeline() {
+        return Pipeline.from(this);
+    }
 }
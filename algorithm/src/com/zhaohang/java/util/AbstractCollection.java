@@ -3,6 +3,7 @@ package com.zhaohang.java.util;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 /**
  * This class provides a skeletal implementation of the Collection interface,
@@ -27,6 +28,75 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      */
     protected AbstractCollection() {}
 
+    /**
+     * The optional Bloom filter over the elements of this collection, or null if none is attached.
+     */
+    private transient volatile BloomFilter bloomFilter;
+
+    /**
+     * Attaches a Bloom filter to this collection, so that contains and containAll can answer "definitely absent"
+     * for most missing elements without iterating over the collection.
+     * The filter is built from the collection on the first lookup and rebuilt when it has grown stale,
+     * in a single pass with forEach.
+     *
+     * A subclass that attaches a filter must report every element it stores, whether by add, addAll, replacement
+     * or any other way, with bloomAdd, and should report removals with bloomRemoved;
+     * an element stored without bloomAdd could be reported absent while present.
+     * Subclasses that keep to this contract may make this method public.
+     * @param falsePositiveRate the target fraction of absent elements that still need a scan.
+     * @throws IllegalArgumentException if the rate is not strictly between 0 and 1.
+     */
+    protected void attachBloomFilter(double falsePositiveRate) {
+        bloomFilter = new BloomFilter(falsePositiveRate);
+    }
+
+    /**
+     * Detaches the Bloom filter of this collection, if any.
+     */
+    protected void detachBloomFilter() {
+        bloomFilter = null;
+    }
+
+    /**
+     * Records that the specified element has been stored in this collection. Does nothing if no filter is attached.
+     */
+    protected final void bloomAdd(Object e) {
+        BloomFilter f = bloomFilter;
+        if (f != null) {
+            f.add(e);
+        }
+    }
+
+    /**
+     * Records that the specified number of elements have been removed or overwritten. Does nothing if no filter is attached.
+     */
+    protected final void bloomRemoved(int count) {
+        BloomFilter f = bloomFilter;
+        if (f != null) {
+            f.removed(count);
+        }
+    }
+
+    /**
+     * Returns true if the attached Bloom filter proves that this collection does not contain the specified element,
+     * rebuilding the filter first if it has grown stale. Returns false if no filter is attached.
+     * A stale filter is replaced by a new one that is published only once it is complete,
+     * so threads reading an unmodified collection concurrently never probe a half-built filter.
+     */
+    protected final boolean definitelyAbsent(Object o) {
+        BloomFilter f = bloomFilter;
+        if (f == null) {
+            return false;
+        }
+        int size = size();
+        if (f.needsRebuild(size)) {
+            BloomFilter fresh = f.rebuilt(size);
+            forEach(fresh::add);
+            bloomFilter = f = fresh;
+        }
+        return !f.mightContain(o);
+    }
+
     /**
      * Returns an iterator over the elements in this collection.
      * @return an iterator over the elements in this collection.
@@ -47,10 +117,14 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      * More formally, returns true if and only if this collection contains at least one element e such that (o == null ? e == null : o.equals(e))
      * This implementation iterates over the elements in this collection,
      * checking each element in turn for equality for the specified element.
+     * If a Bloom filter is attached and it proves the element absent, this implementation returns false without iterating.
      * @param o element whose presence in this collection is to be tested
      * @return
      */
     public boolean contains(Object o) {
+        if (definitelyAbsent(o)) {
+            return false;
+        }
         Iterator<E> iterator = iterator();
         if (o == null) {
             while (iterator.hasNext()) {
@@ -94,14 +168,11 @@ public abstract class AbstractCollection<E> implements Collection<E> {
         // Estimate size of array; be prepared to see more or fewer element.
         Object[] r = new Object[size()];
         Iterator<E> it = iterator();
-        for (int i = 0; i < r.length; i++) {
-            if (!it.hasNext()) {
-                return Arrays.copyOf(r, i); // fewer elements than expected
-            }
-            r[i] = it.next();
+        int i = fill(r, 0, it);
+        if (i < r.length) {
+            return Arrays.copyOf(r, i); // fewer elements than expected
         }
-//        return it.hasNext() ?
-        return null;
+        return it.hasNext() ? finishToArray(r, it) : r;
     }
 
     /**
@@ -121,21 +192,19 @@ public abstract class AbstractCollection<E> implements Collection<E> {
         T[] r = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
         Iterator<E> it = iterator();
 
-        for (int i = 0; i < r.length; i++) {
-            if (!it.hasNext()) {  // fewer element than expected
-                if (a == r) {
-                    r[i] = null;  // null-terminate
-                } else if (a.length < i) {  // fully filled
-                    return Arrays.copyOf(r, i);
-                } else {
-                    System.arraycopy(r, 0, a, 0, i);
-                    if (a.length > i) {
-                        a[i] = null;
-                    }
+        int i = fill(r, 0, it);
+        if (i < r.length) {  // fewer element than expected
+            if (a == r) {
+                r[i] = null;  // null-terminate
+            } else if (a.length < i) {  // fully filled
+                return Arrays.copyOf(r, i);
+            } else {
+                System.arraycopy(r, 0, a, 0, i);
+                if (a.length > i) {
+                    a[i] = null;
                 }
-                return a;
             }
-            r[i] = (T)it.next();
+            return a;
         }
         // more elements than expected
         return it.hasNext() ? finishToArray(r, it) : r;
@@ -149,6 +218,20 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      */
     private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
 
+    /**
+     * Fills the array from the specified index with the elements of the iterator, one batch at a time,
+     * until the array is full or the iterator is exhausted.
+     * The array may be of any component type the elements are assignable to.
+     * @return the index after the last element stored.
+     */
+    private static int fill(Object[] r, int i, Iterator<?> it) {
+        int n;
+        while (i < r.length && (n = it.nextBatch(r, i, r.length - i)) > 0) {
+            i += n;
+        }
+        return i;
+    }
+
     private static <T> T[] finishToArray(T[] r, Iterator<?> it) {
         int i = r.length;
         while (it.hasNext()) {
@@ -161,7 +244,7 @@ public abstract class AbstractCollection<E> implements Collection<E> {
                 }
                 r = Arrays.copyOf(r, newCap);
             }
-            r[i++] = (T)it.next();
+            i = fill(r, i, it);
         }
         // trim if overallocated
         return (i == r.length) ? r : Arrays.copyOf(r, i);
@@ -221,7 +304,7 @@ public abstract class AbstractCollection<E> implements Collection<E> {
             }
         } else {
             while (it.hasNext()) {
-                if (o == it.next()) {
+                if (o.equals(it.next())) {
                     it.remove();
                     return true;
                 }
@@ -235,13 +318,26 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      * This implementation iterates over the specified collection,
      * checking each element returned by the iterator in turn to see if it's contained in this collection.
      * Return true if all elements are so contained, otherwise false.
+     * If the specified collection is large, this collection is first copied into a temporary hash set
+     * (see Membership), so the check takes O(n + m) time instead of O(n * m).
+     * If a Bloom filter is attached, the elements of the specified collection are first checked against it,
+     * and the method returns false without iterating over this collection if one of them is definitely absent.
      * @param c
      * @return
      */
     public boolean containAll(Collection<?> c) {
+        if (bloomFilter != null) {
+            Iterator<?> it = c.iterator();
+            while (it.hasNext()) {
+                if (definitelyAbsent(it.next())) {
+                    return false;
+                }
+            }
+        }
+        Predicate<Object> contained = Membership.of(this, c.size());
         Iterator<?> iterator = c.iterator();
         while (iterator.hasNext()) {
-            if (!contains(iterator.next())) {
+            if (!contained.test(iterator.next())) {
                 return false;
             }
         }
@@ -251,6 +347,7 @@ public abstract class AbstractCollection<E> implements Collection<E> {
     /**
      * This implementation iterates over the specified collection,
      * and adds each object by the iterator to this collection, in turn.
+     * The elements are read from the iterator with nextBatch, into a buffer sized from c.size() and at most ADD_ALL_BATCH long.
      * Note that this implementation throw an UnsupportedOperationException unless add is overridden
      * (assuming the specified collection is non-empty)
      * @param c collection containing element to be added to this collection.
@@ -259,14 +356,24 @@ public abstract class AbstractCollection<E> implements Collection<E> {
     public boolean addAll(Collection<? extends E> c) {
         boolean modified = false;
         Iterator<? extends E> it = c.iterator();
-        while (it.hasNext()) {
-            if (!add(it.next())) {
-                modified = true;
+        Object[] batch = new Object[Math.max(1, Math.min(c.size(), ADD_ALL_BATCH))];
+        int n;
+        while ((n = it.nextBatch(batch, 0, batch.length)) > 0) {
+            for (int i = 0; i < n; i++) {
+                @SuppressWarnings("unchecked") E e = (E) batch[i];
+                if (add(e)) {
+                    modified = true;
+                }
             }
         }
         return modified;
     }
 
+    /**
+     * Number of elements addAll reads from the source iterator at a time.
+     */
+    private static final int ADD_ALL_BATCH = 64;
+
     /**
      * Removes all of this collection's elements that are also contained in the specified collection(optional operation)
      * 介词短语作定语起限定作用
@@ -275,6 +382,8 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      * 过去分词作定语, 与修饰词之间是被动关系, 即修饰词时动作的接受者
      * checking each element returned by the iterator in turn to see if it's contained in the specified collection.
      * If it's so contained, it's remove from this collection with the iterator's remove method.
+     * If the specified collection is large and not a set, it is first copied into a temporary hash set
+     * (see Membership), so each check takes constant time instead of a scan of the specified collection.
      * Note that this collection will throw an UnsupportedOperationException
      * if the iterator returned by the iterator method does not implement remove method
      * 介词短语作定语起限定作用
@@ -284,10 +393,11 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      */
     public boolean removeAll(Collection<?> c) {
         Objects.requireNonNull(c);
+        Predicate<Object> contained = Membership.of(c, size());
         boolean modified = false;
         Iterator<E> it = iterator();
         while (it.hasNext()) {
-            if (c.contains(it.next())) {
+            if (contained.test(it.next())) {
                 it.remove();
                 modified = true;
             }
@@ -301,6 +411,7 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      * This implementation iterates over this collection, checking each element returned by the iterator in turn
      * to see if it's contained in the specified collection.
      * If it's not so contained, it's removed from this collection with the iterator's remove method.
+     * As in removeAll, a large specified collection is first copied into a temporary hash set.
      * Note that this implementation will throw an UnsupportedOperationException if
      * the iterator method does not implement remove method and this collection contains one or more elements not present in the specified collection.
      * @param c collection containing the elements to be retained in this collection.
@@ -308,10 +419,11 @@ public abstract class AbstractCollection<E> implements Collection<E> {
      */
     public boolean retainAll(Collection<?> c) {
         Objects.requireNonNull(c);
+        Predicate<Object> contained = Membership.of(c, size());
         boolean modified = false;
         Iterator<E> it = iterator();
         while (it.hasNext()) {
-            if (!c.contains(it.next())) {
+            if (!contained.test(it.next())) {
                 it.remove();
                 modified = true;
             }
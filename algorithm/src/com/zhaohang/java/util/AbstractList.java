@@ -5,6 +5,8 @@ import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * 宾语补足语：对主语或宾语进行补充说明
@@ -64,6 +66,83 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
      */
     protected AbstractList() {}
 
+    /**
+     * The optional Bloom filter over the elements of this list, or null if none is attached.
+     */
+    private transient volatile BloomFilter bloomFilter;
+
+    /**
+     * Attaches a Bloom filter to this list, so that contains, indexOf, lastIndexOf and containsAll can answer
+     * "definitely absent" for most missing elements without scanning the list.
+     * The filter is built from the list on the first lookup and rebuilt when it has grown stale, in a single pass with forEach.
+     *
+     * A subclass that attaches a filter must report every element it stores, whether by add, addAll, set
+     * or any other way, with bloomAdd, and should report removed or overwritten elements with bloomRemoved;
+     * an element stored without bloomAdd could be reported absent while present.
+     * Subclasses that keep to this contract may make this method public, as ArrayList does.
+     * @param falsePositiveRate the target fraction of absent elements that still need a scan.
+     * @throws IllegalArgumentException if the rate is not strictly between 0 and 1.
+     */
+    protected void attachBloomFilter(double falsePositiveRate) {
+        bloomFilter = new BloomFilter(falsePositiveRate);
+    }
+
+    /**
+     * Detaches the Bloom filter of this list, if any.
+     */
+    protected void detachBloomFilter() {
+        bloomFilter = null;
+    }
+
+    /**
+     * Records that the specified element has been stored in this list. Does nothing if no filter is attached.
+     */
+    protected final void bloomAdd(Object e) {
+        BloomFilter f = bloomFilter;
+        if (f != null) {
+            f.add(e);
+        }
+    }
+
+    /**
+     * Records that the specified number of elements have been removed or overwritten. Does nothing if no filter is attached.
+     */
+    protected final void bloomRemoved(int count) {
+        BloomFilter f = bloomFilter;
+        if (f != null) {
+            f.removed(count);
+        }
+    }
+
+    /**
+     * Returns true if the attached Bloom filter proves that this list does not contain the specified element,
+     * rebuilding the filter first if it has grown stale. Returns false if no filter is attached.
+     * A stale filter is replaced by a new one that is published only once it is complete,
+     * so threads reading an unmodified list concurrently never probe a half-built filter.
+     */
+    protected final boolean definitelyAbsent(Object o) {
+        BloomFilter f = bloomFilter;
+        if (f == null) {
+            return false;
+        }
+        int size = size();
+        if (f.needsRebuild(size)) {
+            BloomFilter fresh = f.rebuilt(size);
+            forEach(fresh::add);
+            bloomFilter = f = fresh;
+        }
+        return !f.mightContain(o);
+    }
+
+    /**
+     * Returns true if this list contains the specified element.
+     * If a Bloom filter is attached and it proves the element absent, this implementation returns false without iterating.
+     */
+    @Override
+    public boolean contains(Object o) {
+        return !definitelyAbsent(o) && super.contains(o);
+    }
+
     /**
      * Appends the specified element to the end of this list (optional operation).
      * Lists that support this operation may place limitations on what elements may be added to this list.
@@ -118,8 +197,17 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns the index of the first occurrence of the specified element in this list,
+     * or -1 if this list does not contain the element.
+     * This implementation returns -1 at once if an attached Bloom filter proves the element absent;
+     * otherwise it iterates forwards over the list with a list iterator.
+     */
     @Override
     public int indexOf(Object o) {
+        if (definitelyAbsent(o)) {
+            return -1;
+        }
         ListIterator<E> li = listIterator();
         if (o == null) {
             while (li.hasNext()) {
@@ -147,6 +235,9 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
      */
     @Override
     public int lastIndexOf(Object o) {
+        if (definitelyAbsent(o)) {
+            return -1;
+        }
         ListIterator<E> it = listIterator(size());
         if (o == null) {
             while (it.hasPrevious()) {
@@ -195,7 +286,155 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
         return modified;
     }
 
-    private class Itr implements Iterator<E> {
+    /**
+     * Removes all the elements of this list that satisfy the given predicate.
+     * If this list implements RandomAccess, this implementation calls bulkRemove(filter, 0, size()),
+     * which tests every element once and then removes all the matches in a single compaction pass;
+     * otherwise it removes the matches one at a time through the iterator.
+     * @throws NullPointerException if the specified filter is null.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        if (this instanceof RandomAccess) {
+            return bulkRemove(filter, 0, size());
+        }
+        return List.super.removeIf(filter);
+    }
+
+    /**
+     * Removes from this list all of its elements that are contained in the specified collection.
+     * If the specified collection is large and not a set, it is first copied into a temporary hash set
+     * (see Membership), so the operation takes O(n + m) time instead of O(n * m);
+     * if this list implements RandomAccess, the removal itself is done by bulkRemove in linear time.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return removeIf(Membership.of(c, size()));
+    }
+
+    /**
+     * Retains only the elements in this list that are contained in the specified collection.
+     * Membership is tested as in removeAll.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return removeIf(Membership.of(c, size()).negate());
+    }
+
+    /**
+     * Returns true if this list contains all the elements of the specified collection.
+     * If this list is large, it is first copied into a temporary hash set (see Membership),
+     * so the check takes O(n + m) time instead of one linear indexOf per element of the specified collection.
+     * If a Bloom filter is attached, the elements of the specified collection are first checked against it,
+     * and the method returns false without scanning this list if one of them is definitely absent.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (bloomFilter != null) {
+            for (Object e : c) {
+                if (definitelyAbsent(e)) {
+                    return false;
+                }
+            }
+        }
+        Predicate<Object> contained = Membership.of(this, c.size());
+        for (Object e : c) {
+            if (!contained.test(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the elements between fromIndex, inclusive, and toIndex, exclusive, that satisfy the given predicate.
+     * This is the bulk removal protocol behind removeIf, removeAll and retainAll of random access lists.
+     *
+     * The removal runs in two passes. The first pass tests every element in the range once
+     * and marks the ones to remove in a bitset, without changing the list;
+     * if the predicate throws an exception, the list is left unchanged.
+     * The second pass moves the surviving elements down over the removed ones,
+     * and a single removeRange then closes the gap, so the whole removal takes linear time
+     * instead of one shift of the tail per removed element.
+     *
+     * This implementation compacts with get(int) and set(int, E) and finishes with removeRange(int, int).
+     * Array-backed lists should override it to work on their array directly.
+     * @return true if any elements were removed.
+     * @throws ConcurrentModificationException if this list was structurally modified while the predicate was being tested.
+     */
+    protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+        final int expectedModCount = modCount;
+        int i = fromIndex;
+        // optimize for initial run of survivors
+        while (i < toIndex && !filter.test(get(i))) {
+            i++;
+        }
+        // tolerate predicates that reentrantly access the collection for read,
+        // so traverse once to find elements to delete, a second pass to physically expunge.
+        if (i < toIndex) {
+            final int beg = i;
+            final long[] deathRow = nBits(toIndex - beg);
+            deathRow[0] = 1L; // set bit 0
+            for (i = beg + 1; i < toIndex; i++) {
+                if (filter.test(get(i))) {
+                    setBit(deathRow, i - beg);
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            int w = beg;
+            for (i = beg; i < toIndex; i++) {
+                if (isClear(deathRow, i - beg)) {
+                    set(w++, get(i));
+                }
+            }
+            removeRange(w, toIndex);
+            return true;
+        } else {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns a bitset large enough to hold n bits, for bulkRemove.
+     */
+    static long[] nBits(int n) {
+        return new long[((n - 1) >> 6) + 1];
+    }
+
+    static void setBit(long[] bits, int i) {
+        bits[i >> 6] |= 1L << i;
+    }
+
+    static boolean isClear(long[] bits, int i) {
+        return (bits[i >> 6] & (1L << i)) == 0;
+    }
+
+    /**
+     * Copies the elements between fromIndex, inclusive, and fromIndex + length, exclusive, into the specified array.
+     * This is the bulk read behind the nextBatch method of this class's iterators,
+     * which are also iterators of this package (com.zhaohang.java.util.Iterator).
+     * The caller has checked the range against the size of this list.
+     *
+     * This implementation calls get(int) for each index.
+     * Array-backed lists should override it with System.arraycopy.
+     * @throws ArrayStoreException if an element cannot be stored in dst.
+     */
+    protected void copyTo(int fromIndex, Object[] dst, int dstOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = get(fromIndex + i);
+        }
+    }
+
+    private class Itr implements Iterator<E>, com.zhaohang.java.util.Iterator<E> {
 
         /**
          * index of the element to be returned by subsequent call to next.
@@ -279,6 +518,45 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
             }
         }
 
+        /**
+         * Performs the given action for each remaining element with an indexed loop,
+         * checking for concurrent modification once at the end instead of on every element.
+         * @throws NullPointerException if the specified action is null.
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            final int size = size();
+            int i = cursor;
+            if (i < size) {
+                for (; modCount == expectedModCount && i < size; i++) {
+                    action.accept(get(i));
+                }
+                // update once at end to reduce heap write traffic
+                cursor = i;
+                lastRet = i - 1;
+                checkForModification();
+            }
+        }
+
+        /**
+         * Copies the next batch with a single copyTo, checking for concurrent modification before and after it.
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            checkForModification();
+            int n = Math.min(max, size() - cursor);
+            if (n <= 0) {
+                return 0;
+            }
+            copyTo(cursor, dst, off, n);
+            checkForModification();
+            cursor += n;
+            lastRet = cursor - 1;
+            return n;
+        }
+
         final void checkForModification() {
             if (modCount != expectedModCount) {
                 throw new ConcurrentModificationException();
@@ -397,9 +675,14 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
         }
     }
 
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     * This implementation returns a straightforward implementation of the iterator interface,
+     * relying on the backing list's size(), get(int) and remove(int) methods.
+     */
     @Override
     public Iterator<E> iterator() {
-        return null;
+        return new Itr();
     }
 
     @Override
@@ -432,9 +715,377 @@ public abstract class AbstractList<E> extends AbstractCollection<E> implements L
         return new ListItr(index);
     }
 
+    /**
+     * Performs the given action for each element of this list, in order,
+     * until all elements have been processed or the action throws an exception.
+     * This implementation walks the indices from 0 to size() with get(int) instead of creating an iterator,
+     * and checks modCount once, after the loop, rather than on every step.
+     * @param action The action to be performed for each element.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final int size = size();
+        for (int i = 0; modCount == expectedModCount && i < size; i++) {
+            action.accept(get(i));
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Creates a Spliterator over the elements in this list.
+     * If this list implements RandomAccess, the spliterator walks and splits the index range of the list,
+     * reading elements with get(int); it reports SIZED, SUBSIZED and ORDERED and splits the remaining range in half,
+     * so parallel streams over this list divide the work evenly.
+     * Otherwise the iterator-based spliterator of the List interface is returned.
+     * The spliterator checks modCount once traversal ends and throws a ConcurrentModificationException
+     * if the list was structurally modified in the meantime.
+     * @return a Spliterator over the elements in this list.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        if (this instanceof RandomAccess) {
+            return new RandomAccessSpliterator<>(this);
+        }
+        return List.super.spliterator();
+    }
+
+    /**
+     * An index-based split-by-two, lazily initialized Spliterator over a random access AbstractList.
+     */
+    static final class RandomAccessSpliterator<E> implements Spliterator<E> {
+
+        private final AbstractList<E> list;
+
+        /**
+         * Current index, modified on advance/split.
+         */
+        private int index;
+
+        /**
+         * -1 until used; then one past last index.
+         */
+        private int fence;
+
+        private int expectedModCount;
+
+        RandomAccessSpliterator(AbstractList<E> list) {
+            this.list = list;
+            this.index = 0;
+            this.fence = -1;
+        }
+
+        /**
+         * Create new spliterator covering the given range.
+         */
+        private RandomAccessSpliterator(RandomAccessSpliterator<E> parent, int origin, int fence) {
+            this.list = parent.list;
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = parent.expectedModCount;
+        }
+
+        /**
+         * Initializes fence to size on first use.
+         */
+        private int getFence() {
+            int hi = fence;
+            if (hi < 0) {
+                expectedModCount = list.modCount;
+                hi = fence = list.size();
+            }
+            return hi;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            // divide range in half unless too small
+            return lo >= mid ? null : new RandomAccessSpliterator<>(this, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                action.accept(list.get(i));
+                checkForModification();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            AbstractList<E> lst = list;
+            int hi = getFence();
+            int i = index;
+            index = hi;
+            for (; i < hi; i++) {
+                action.accept(lst.get(i));
+            }
+            checkForModification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private void checkForModification() {
+            if (list.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Returns a view of the portion of this list between the specified fromIndex, inclusive, and toIndex, exclusive.
+     * Creating the view costs constant time: it copies nothing and only records an offset and a size.
+     *
+     * The view forwards get, set, add and remove to this list, shifted by the offset,
+     * and removeRange to a single removeRange on this list, so subList(from, to).clear()
+     * removes the whole range with one call instead of (to - from) single removals.
+     * The view is a RandomAccess list if and only if this list is one.
+     *
+     * The view records this list's modCount when it is created and after each change made through it.
+     * If this list is structurally modified in any other way, every later operation on the view
+     * throws a ConcurrentModificationException.
+     * @throws IndexOutOfBoundsException if fromIndex < 0 or toIndex > size().
+     * @throws IllegalArgumentException if fromIndex > toIndex.
+     */
     @Override
     public List<E> subList(int fromIndex, int toIndex) {
-        return null;
+        subListRangeCheck(fromIndex, toIndex, size());
+        return this instanceof RandomAccess ?
+                new RandomAccessSubList<>(this, fromIndex, toIndex) :
+                new SubList<>(this, fromIndex, toIndex);
+    }
+
+    static void subListRangeCheck(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+        }
+        if (toIndex > size) {
+            throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+    }
+
+    /**
+     * A view of a range of a root list. Nested views keep a reference to the root,
+     * so every operation goes straight to the root with the accumulated offset,
+     * and walk up the parent chain only to update their sizes and modCounts.
+     */
+    private static class SubList<E> extends AbstractList<E> {
+
+        private final AbstractList<E> root;
+
+        private final SubList<E> parent;
+
+        /**
+         * Index in the root list of the first element of this view.
+         */
+        protected final int offset;
+
+        protected int size;
+
+        /**
+         * Constructs a view of the specified range of the root list.
+         */
+        SubList(AbstractList<E> root, int fromIndex, int toIndex) {
+            this.root = root;
+            this.parent = null;
+            this.offset = fromIndex;
+            this.size = toIndex - fromIndex;
+            this.modCount = root.modCount;
+        }
+
+        /**
+         * Constructs a view of the specified range of the parent view.
+         */
+        protected SubList(SubList<E> parent, int fromIndex, int toIndex) {
+            this.root = parent.root;
+            this.parent = parent;
+            this.offset = parent.offset + fromIndex;
+            this.size = toIndex - fromIndex;
+            this.modCount = root.modCount;
+        }
+
+        @Override
+        public E set(int index, E element) {
+            rangeCheck(index);
+            checkForComodification();
+            return root.set(offset + index, element);
+        }
+
+        @Override
+        public E get(int index) {
+            rangeCheck(index);
+            checkForComodification();
+            return root.get(offset + index);
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public void add(int index, E element) {
+            rangeCheckForAdd(index);
+            checkForComodification();
+            root.add(offset + index, element);
+            updateSizeAndModCount(1);
+        }
+
+        @Override
+        public E remove(int index) {
+            rangeCheck(index);
+            checkForComodification();
+            E result = root.remove(offset + index);
+            updateSizeAndModCount(-1);
+            return result;
+        }
+
+        /**
+         * Removes the range with a single removeRange on the root list.
+         */
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkForComodification();
+            root.removeRange(offset + fromIndex, offset + toIndex);
+            updateSizeAndModCount(fromIndex - toIndex);
+        }
+
+        @Override
+        public void clear() {
+            removeRange(0, size());
+        }
+
+        /**
+         * Forwards to the root list's bulkRemove over the corresponding range.
+         */
+        @Override
+        protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+            checkForComodification();
+            int oldSize = root.size();
+            boolean modified = root.bulkRemove(filter, offset + fromIndex, offset + toIndex);
+            if (modified) {
+                updateSizeAndModCount(root.size() - oldSize);
+            }
+            return modified;
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return addAll(size, c);
+        }
+
+        /**
+         * Inserts the elements with a single addAll on the root list.
+         */
+        @Override
+        public boolean addAll(int index, Collection<? extends E> c) {
+            rangeCheckForAdd(index);
+            int cSize = c.size();
+            if (cSize == 0) {
+                return false;
+            }
+            checkForComodification();
+            int oldSize = root.size();
+            root.addAll(offset + index, c);
+            updateSizeAndModCount(root.size() - oldSize);
+            return true;
+        }
+
+        @Override
+        public Object[] toArray() {
+            checkForComodification();
+            Object[] r = new Object[size];
+            root.copyTo(offset, r, 0, size);
+            return r;
+        }
+
+        @Override
+        protected void copyTo(int fromIndex, Object[] dst, int dstOffset, int length) {
+            checkForComodification();
+            root.copyTo(offset + fromIndex, dst, dstOffset, length);
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            subListRangeCheck(fromIndex, toIndex, size);
+            return new SubList<>(this, fromIndex, toIndex);
+        }
+
+        private void rangeCheck(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+            }
+        }
+
+        private void rangeCheckForAdd(int index) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+            }
+        }
+
+        private String outOfBoundsMsg(int index) {
+            return "Index: " + index + ", Size: " + size;
+        }
+
+        private void checkForComodification() {
+            if (root.modCount != this.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * Applies a size change made through this view to it and all its ancestors,
+         * and records the root's new modCount in each of them.
+         */
+        private void updateSizeAndModCount(int sizeChange) {
+            SubList<E> slist = this;
+            do {
+                slist.size += sizeChange;
+                slist.modCount = root.modCount;
+                slist = slist.parent;
+            } while (slist != null);
+        }
+    }
+
+    private static class RandomAccessSubList<E> extends SubList<E> implements RandomAccess {
+
+        RandomAccessSubList(AbstractList<E> root, int fromIndex, int toIndex) {
+            super(root, fromIndex, toIndex);
+        }
+
+        RandomAccessSubList(RandomAccessSubList<E> parent, int fromIndex, int toIndex) {
+            super(parent, fromIndex, toIndex);
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            subListRangeCheck(fromIndex, toIndex, size);
+            return new RandomAccessSubList<>(this, fromIndex, toIndex);
+        }
     }
 
     @Override
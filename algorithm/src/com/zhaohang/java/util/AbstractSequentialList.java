@@ -0,0 +1,158 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * This class provides a skeletal implementation of the List interface
+ * to minimize the effort required to implement this interface backed by a "sequential access" data store
+ * (such as a linked list). For random access data (such as an array), AbstractList should be used in preference to this class.
+ *
+ * This class is the opposite of the AbstractList class in the sense that it implements the "random access" methods
+ * (get(int index), set(int index, E element), add(int index, E element) and remove(int index))
+ * on top of the list's list iterator, instead of the other way around.
+ *
+ * To implement a list the programmer needs only to extend this class
+ * and provide implementations for the listIterator and size methods.
+ * For an unmodifiable list, the programmer need only implement the list iterator's hasNext, next, hasPrevious,
+ * previous and index methods.
+ * For a modifiable list the programmer should additionally implement the list iterator's set method.
+ * For a variable-size list the programmer should additionally implement the list iterator's remove and add methods.
+ *
+ * The programmer should generally provide a void (no argument) and collection constructor,
+ * as per the recommendation in the Collection interface specification.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements in this list.
+ */
+public abstract class AbstractSequentialList<E> extends AbstractList<E> {
+
+    /**
+     * Sole constructor. (For invocation by subclass constructors, typically implicit.)
+     */
+    protected AbstractSequentialList() {}
+
+    /**
+     * Returns the element at the specified position in this list.
+     * This implementation first gets a list iterator pointing to the indexed element (with listIterator(index)).
+     * Then, it gets the element using ListIterator.next and returns it.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E get(int index) {
+        try {
+            return listIterator(index).next();
+        } catch (NoSuchElementException exc) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the specified element.
+     * This implementation first gets a list iterator pointing to the indexed element (with listIterator(index)).
+     * Then, it gets the current element using ListIterator.next and replaces it with ListIterator.set.
+     * @throws UnsupportedOperationException if the list iterator does not implement the set operation.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E set(int index, E element) {
+        try {
+            ListIterator<E> e = listIterator(index);
+            E oldVal = e.next();
+            e.set(element);
+            return oldVal;
+        } catch (NoSuchElementException exc) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list.
+     * This implementation first gets a list iterator pointing to the indexed element (with listIterator(index)).
+     * Then, it inserts the specified element with ListIterator.add.
+     * @throws UnsupportedOperationException if the list iterator does not implement the add operation.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public void add(int index, E element) {
+        try {
+            listIterator(index).add(element);
+        } catch (NoSuchElementException exc) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * This implementation first gets a list iterator pointing to the indexed element (with listIterator(index)).
+     * Then, it removes the element with ListIterator.remove.
+     * @throws UnsupportedOperationException if the list iterator does not implement the remove operation.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E remove(int index) {
+        try {
+            ListIterator<E> e = listIterator(index);
+            E outCast = e.next();
+            e.remove();
+            return outCast;
+        } catch (NoSuchElementException exc) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    /**
+     * Inserts all the elements in the specified collection into this list at the specified position.
+     * This implementation gets a list iterator over this list pointing to the indexed element (with listIterator(index)).
+     * Then, it iterates over the specified collection,
+     * inserting the elements obtained from the iterator into this list, one at a time,
+     * using ListIterator.add followed by ListIterator.next (to skip over the added element).
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        try {
+            boolean modified = false;
+            ListIterator<E> e1 = listIterator(index);
+            for (E e : c) {
+                e1.add(e);
+                modified = true;
+            }
+            return modified;
+        } catch (NoSuchElementException exc) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this list (in proper sequence).
+     * This implementation merely returns a list iterator over the list.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator();
+    }
+
+    /**
+     * Returns a list iterator over the elements in this list (in proper sequence).
+     * @param index index of first element to be returned from the list iterator (by a call to the next method).
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public abstract ListIterator<E> listIterator(int index);
+
+    /**
+     * Performs the given action for each element of this list, in order.
+     * This implementation walks the list with its iterator,
+     * rather than calling get(int) for each index, which would take quadratic time on a sequential list.
+     * @throws NullPointerException if the specified action is null.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        iterator().forEachRemaining(action);
+    }
+}
@@ -0,0 +1,63 @@
+package com.zhaohang.java.util;
+
+/**
+ * This class provides a skeletal implementation of the Set interface to minimize the effort required to implement this interface.
+ * The process of implementing a set by extending this class is identical to that of implementing a Collection
+ * by extending AbstractCollection, except that all the methods and constructors in subclasses of this class
+ * must obey the additional constraints imposed by the Set interface
+ * (for instance, the add method must not permit addition of multiple instances of an object to a set).
+ * Note that this class does not override any of the implementations from the AbstractCollection class.
+ * It merely adds implementations for equals and hashCode.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements maintained by this set.
+ */
+public abstract class AbstractSet<E> extends AbstractCollection<E> implements Set<E> {
+
+    /**
+     * Sole constructor. (For invocation by subclass constructors, typically implicit.)
+     */
+    protected AbstractSet() {}
+
+    /**
+     * Compares the specified object with this set for equality.
+     * This implementation first checks if the specified object is this set; if so it returns true.
+     * Then, it checks if the specified object is a set whose size is identical to the size of this set;
+     * if not, it returns false. If so, it returns containAll((Collection) o).
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Set)) {
+            return false;
+        }
+        Collection<?> c = (Collection<?>) o;
+        if (c.size() != size()) {
+            return false;
+        }
+        try {
+            return containAll(c);
+        } catch (ClassCastException | NullPointerException unused) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the hash code value for this set, the sum of the hash codes of its elements.
+     * This implementation iterates over the set, calling the hashCode method on each element, and adding up the results.
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Iterator<E> i = iterator();
+        while (i.hasNext()) {
+            E obj = i.next();
+            if (obj != null) {
+                h += obj.hashCode();
+            }
+        }
+        return h;
+    }
+}
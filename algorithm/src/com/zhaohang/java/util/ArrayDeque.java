@@ -0,0 +1,737 @@
+package com.zhaohang.java.util;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Resizable-array implementation of the Deque interface, as a ring buffer.
+ * The capacity is always a power of two, so positions wrap around with a bit mask instead of a division or a branch,
+ * and the array doubles when it fills up. Array deques have no capacity restrictions;
+ * they are not thread-safe, and null elements are prohibited.
+ * This class is likely to be faster than Stack when used as a stack, and faster than a linked list when used as a queue.
+ *
+ * The insertion and removal operations at both ends (offerFirst, offerLast, pollFirst, pollLast and their variants)
+ * run in amortized constant time. Because the elements occupy at most two runs of the array,
+ * one from the head to the end of the array and one from its start to the tail,
+ * addAll and toArray copy with at most two System.arraycopy calls,
+ * and drainTo removes a batch from the head with at most two.
+ * Most other operations run in linear time.
+ * A deque that is mostly probed for elements it does not contain can attach a Bloom filter with attachBloomFilter,
+ * so that contains returns at once for most absent elements.
+ *
+ * The iterators returned by this class's iterator method are fail-fast:
+ * if the deque is modified at any time after the iterator is created, in any way except through the iterator's own remove method,
+ * the iterator will generally throw a ConcurrentModificationException.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements held in this collection.
+ */
+public class ArrayDeque<E> extends AbstractCollection<E> implements Deque<E> {
+
+    /**
+     * The array in which the elements of the deque are stored.
+     * Its length is always a power of two and is never full, except transiently within an addX method,
+     * where it is resized immediately upon becoming full, so that head and tail never wrap around to equal each other.
+     * Array slots that do not hold deque elements are always null.
+     */
+    transient Object[] elements;
+
+    /**
+     * The index of the element at the head of the deque; equal to tail if the deque is empty.
+     */
+    transient int head;
+
+    /**
+     * The index at which the next element would be added to the tail of the deque.
+     */
+    transient int tail;
+
+    /**
+     * The minimum capacity that we'll use for a newly created deque. Must be a power of 2.
+     */
+    private static final int MIN_INITIAL_CAPACITY = 8;
+
+    /**
+     * The largest power of two capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Constructs an empty array deque with an initial capacity sufficient to hold 16 elements.
+     */
+    public ArrayDeque() {
+        elements = new Object[16];
+    }
+
+    /**
+     * Constructs an empty array deque with an initial capacity sufficient to hold the specified number of elements.
+     * @param numElements lower bound on initial capacity of the deque.
+     */
+    public ArrayDeque(int numElements) {
+        elements = new Object[tableSizeFor(numElements + 1)];
+    }
+
+    /**
+     * Constructs a deque containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    public ArrayDeque(Collection<? extends E> c) {
+        this(c.size());
+        addAll(c);
+    }
+
+    /**
+     * Returns the smallest power of two, at least MIN_INITIAL_CAPACITY, that is not less than the specified capacity.
+     */
+    private static int tableSizeFor(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Sorry, deque too big");
+        }
+        int n = MIN_INITIAL_CAPACITY;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    /**
+     * Reallocates the array so that it can hold at least minCapacity elements plus the always-free slot,
+     * unwrapping the elements to start at index 0 with two array copies.
+     */
+    private void resize(int minCapacity) {
+        int n = size();
+        Object[] a = new Object[tableSizeFor(minCapacity + 1)];
+        copyElements(a, 0, n);
+        elements = a;
+        head = 0;
+        tail = n;
+    }
+
+    /**
+     * Doubles the capacity of this deque. Call only when full, i.e., when head and tail have wrapped around to become equal.
+     */
+    private void doubleCapacity() {
+        assert head == tail;
+        int p = head;
+        int n = elements.length;
+        int r = n - p; // number of elements to the right of p
+        int newCapacity = n << 1;
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Sorry, deque too big");
+        }
+        Object[] a = new Object[newCapacity];
+        System.arraycopy(elements, p, a, 0, r);
+        System.arraycopy(elements, 0, a, r, p);
+        elements = a;
+        head = 0;
+        tail = n;
+    }
+
+    /**
+     * Copies the first n elements of this deque, in order, into the specified array at the specified offset,
+     * with at most two array copies.
+     */
+    private void copyElements(Object[] a, int offset, int n) {
+        int first = Math.min(n, elements.length - head);
+        System.arraycopy(elements, head, a, offset, first);
+        System.arraycopy(elements, 0, a, offset + first, n - first);
+    }
+
+    // The main insertion and extraction methods are addFirst, addLast, pollFirst, pollLast.
+    // The other methods are defined in terms of these.
+
+    /**
+     * Inserts the specified element at the front of this deque.
+     * @throws NullPointerException if the specified element is null.
+     */
+    @Override
+    public void addFirst(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        elements[head = (head - 1) & (elements.length - 1)] = e;
+        bloomAdd(e);
+        if (head == tail) {
+            doubleCapacity();
+        }
+    }
+
+    /**
+     * Inserts the specified element at the end of this deque.
+     * @throws NullPointerException if the specified element is null.
+     */
+    @Override
+    public void addLast(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        elements[tail] = e;
+        bloomAdd(e);
+        if ((tail = (tail + 1) & (elements.length - 1)) == head) {
+            doubleCapacity();
+        }
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        addLast(e);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        E x = pollFirst();
+        if (x == null) {
+            throw new NoSuchElementException();
+        }
+        return x;
+    }
+
+    @Override
+    public E removeLast() {
+        E x = pollLast();
+        if (x == null) {
+            throw new NoSuchElementException();
+        }
+        return x;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E pollFirst() {
+        int h = head;
+        E result = (E) elements[h];
+        // Element is null if deque empty
+        if (result == null) {
+            return null;
+        }
+        elements[h] = null; // Must null out slot
+        head = (h + 1) & (elements.length - 1);
+        bloomRemoved(1);
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E pollLast() {
+        int t = (tail - 1) & (elements.length - 1);
+        E result = (E) elements[t];
+        if (result == null) {
+            return null;
+        }
+        elements[t] = null;
+        tail = t;
+        bloomRemoved(1);
+        return result;
+    }
+
+    @Override
+    public E getFirst() {
+        E result = peekFirst();
+        if (result == null) {
+            throw new NoSuchElementException();
+        }
+        return result;
+    }
+
+    @Override
+    public E getLast() {
+        E result = peekLast();
+        if (result == null) {
+            throw new NoSuchElementException();
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peekFirst() {
+        // elements[head] is null if deque empty
+        return (E) elements[head];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peekLast() {
+        return (E) elements[(tail - 1) & (elements.length - 1)];
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (o != null) {
+            int mask = elements.length - 1;
+            int i = head;
+            Object x;
+            while ((x = elements[i]) != null) {
+                if (o.equals(x)) {
+                    delete(i);
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (o != null) {
+            int mask = elements.length - 1;
+            int i = (tail - 1) & mask;
+            Object x;
+            while ((x = elements[i]) != null) {
+                if (o.equals(x)) {
+                    delete(i);
+                    return true;
+                }
+                i = (i - 1) & mask;
+            }
+        }
+        return false;
+    }
+
+    // *** Queue methods ***
+
+    @Override
+    public boolean add(E e) {
+        addLast(e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        return offerLast(e);
+    }
+
+    @Override
+    public E remove() {
+        return removeFirst();
+    }
+
+    @Override
+    public E poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public E element() {
+        return getFirst();
+    }
+
+    @Override
+    public E peek() {
+        return peekFirst();
+    }
+
+    // *** Stack methods ***
+
+    @Override
+    public void push(E e) {
+        addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+        return removeFirst();
+    }
+
+    // *** Bulk operations ***
+
+    /**
+     * Appends all the elements in the specified collection to the end of this deque,
+     * growing the array at most once and copying the elements in with at most two array copies.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addArray(c.toArray());
+    }
+
+    /**
+     * Appends all the elements in the specified java.util collection, such as a list, to the end of this deque,
+     * growing the array at most once and copying the elements in with at most two array copies.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    public boolean addAll(java.util.Collection<? extends E> c) {
+        return addArray(c.toArray());
+    }
+
+    private boolean addArray(Object[] a) {
+        int n = a.length;
+        if (n == 0) {
+            return false;
+        }
+        for (Object e : a) {
+            Objects.requireNonNull(e);
+        }
+        int size = size();
+        if (size + n >= elements.length) {
+            resize(size + n);
+        }
+        int first = Math.min(n, elements.length - tail);
+        System.arraycopy(a, 0, elements, tail, first);
+        System.arraycopy(a, first, elements, 0, n - first);
+        tail = (tail + n) & (elements.length - 1);
+        for (Object e : a) {
+            bloomAdd(e);
+        }
+        return true;
+    }
+
+    /**
+     * Removes up to maxElements elements from the head of this deque and adds them, in order, to the specified deque.
+     * The batch is copied out of this deque with at most two array copies;
+     * if the target is also an ArrayDeque, it is copied in with at most two more.
+     * @param c the collection to transfer elements into.
+     * @param maxElements the maximum number of elements to transfer.
+     * @return the number of elements transferred.
+     * @throws NullPointerException if the specified collection is null.
+     * @throws IllegalArgumentException if the specified collection is this deque.
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        Object[] batch = pollBatch(maxElements);
+        if (c instanceof ArrayDeque) {
+            ((ArrayDeque<?>) c).addArray(batch);
+        } else {
+            for (Object e : batch) {
+                @SuppressWarnings("unchecked") E x = (E) e;
+                c.add(x);
+            }
+        }
+        return batch.length;
+    }
+
+    /**
+     * Removes up to maxElements elements from the head of this deque and adds them, in order,
+     * to the specified java.util collection, such as a list, with a single addAll call.
+     * The batch is copied out of this deque with at most two array copies.
+     * @param c the collection to transfer elements into.
+     * @param maxElements the maximum number of elements to transfer.
+     * @return the number of elements transferred.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(java.util.Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        Object[] batch = pollBatch(maxElements);
+        if (batch.length > 0) {
+            c.addAll((java.util.List<E>) Arrays.asList(batch));
+        }
+        return batch.length;
+    }
+
+    /**
+     * Removes up to max elements from the head and returns them in order.
+     */
+    private Object[] pollBatch(int max) {
+        int n = Math.min(Math.max(max, 0), size());
+        Object[] batch = new Object[n];
+        if (n > 0) {
+            copyElements(batch, 0, n);
+            int first = Math.min(n, elements.length - head);
+            Arrays.fill(elements, head, head + first, null);
+            Arrays.fill(elements, 0, n - first, null);
+            head = (head + n) & (elements.length - 1);
+            bloomRemoved(n);
+        }
+        return batch;
+    }
+
+    /**
+     * Removes the element at the specified position in the elements array,
+     * moving whichever side of it is shorter to close the gap.
+     * @return true if elements moved backwards (the tail moved), false if they moved forwards (the head moved).
+     */
+    boolean delete(int i) {
+        final Object[] elements = this.elements;
+        final int mask = elements.length - 1;
+        final int h = head;
+        final int t = tail;
+        final int front = (i - h) & mask;
+        final int back = (t - i) & mask;
+
+        // Invariant: head <= i < tail mod circularity
+        if (front >= ((t - h) & mask)) {
+            throw new ConcurrentModificationException();
+        }
+        bloomRemoved(1);
+
+        // Optimize for least element motion
+        if (front < back) {
+            if (h <= i) {
+                System.arraycopy(elements, h, elements, h + 1, front);
+            } else { // Wrap around
+                System.arraycopy(elements, 0, elements, 1, i);
+                elements[0] = elements[mask];
+                System.arraycopy(elements, h, elements, h + 1, mask - h);
+            }
+            elements[h] = null;
+            head = (h + 1) & mask;
+            return false;
+        } else {
+            if (i < t) { // Copy the null tail as well
+                System.arraycopy(elements, i + 1, elements, i, back);
+                tail = t - 1;
+            } else { // Wrap around
+                System.arraycopy(elements, i + 1, elements, i, mask - i);
+                elements[mask] = elements[0];
+                System.arraycopy(elements, 1, elements, 0, t);
+                tail = (t - 1) & mask;
+            }
+            return true;
+        }
+    }
+
+    // *** Collection methods ***
+
+    /**
+     * Attaches a Bloom filter over the elements of this deque, built on the next lookup,
+     * so that contains skips the scan for all but about the specified fraction of absent elements.
+     * Every added element is hashed while the filter is attached.
+     * @param falsePositiveRate the target fraction of absent elements that still need a scan, such as 0.01.
+     * @throws IllegalArgumentException if the rate is not strictly between 0 and 1.
+     */
+    @Override
+    public void attachBloomFilter(double falsePositiveRate) {
+        super.attachBloomFilter(falsePositiveRate);
+    }
+
+    /**
+     * Detaches the Bloom filter of this deque, if any.
+     */
+    @Override
+    public void detachBloomFilter() {
+        super.detachBloomFilter();
+    }
+
+    @Override
+    public int size() {
+        return (tail - head) & (elements.length - 1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o != null && !definitelyAbsent(o)) {
+            int mask = elements.length - 1;
+            int i = head;
+            Object x;
+            while ((x = elements[i]) != null) {
+                if (o.equals(x)) {
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+
+    /**
+     * Removes all the elements from this deque, nulling out the occupied runs of the array.
+     */
+    @Override
+    public void clear() {
+        int h = head;
+        int t = tail;
+        if (h != t) { // clear all cells
+            bloomRemoved((t - h) & (elements.length - 1));
+            head = tail = 0;
+            if (h < t) {
+                Arrays.fill(elements, h, t, null);
+            } else {
+                Arrays.fill(elements, h, elements.length, null);
+                Arrays.fill(elements, 0, t, null);
+            }
+        }
+    }
+
+    /**
+     * Returns an array containing all the elements in this deque in proper sequence (from first to last element),
+     * copied with at most two array copies.
+     */
+    @Override
+    public Object[] toArray() {
+        int n = size();
+        Object[] a = new Object[n];
+        copyElements(a, 0, n);
+        return a;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        int size = size();
+        if (a.length < size) {
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        copyElements(a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final Object[] es = elements;
+        final int mask = es.length - 1;
+        final int t = tail;
+        for (int i = head; i != t; i = (i + 1) & mask) {
+            E e = (E) es[i];
+            if (e == null || tail != t) {
+                throw new ConcurrentModificationException();
+            }
+            action.accept(e);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new DeqIterator();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new DescendingIterator();
+    }
+
+    private class DeqIterator implements Iterator<E> {
+
+        /**
+         * Index of element to be returned by subsequent call to next.
+         */
+        private int cursor = head;
+
+        /**
+         * Tail recorded at construction (also in remove), to stop iterator and also to check for comodification.
+         */
+        private int fence = tail;
+
+        /**
+         * Index of element returned by most recent call to next. Reset to -1 if element is deleted by a call to remove.
+         */
+        private int lastRet = -1;
+
+        @Override
+        public boolean hasNext() {
+            return cursor != fence;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor == fence) {
+                throw new NoSuchElementException();
+            }
+            E result = (E) elements[cursor];
+            // This check doesn't catch all possible comodifications,
+            // but does catch the ones that corrupt traversal
+            if (tail != fence || result == null) {
+                throw new ConcurrentModificationException();
+            }
+            lastRet = cursor;
+            cursor = (cursor + 1) & (elements.length - 1);
+            return result;
+        }
+
+        /**
+         * Copies the next batch with at most two array copies, one on each side of the end of the array.
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            if (tail != fence) {
+                throw new ConcurrentModificationException();
+            }
+            final Object[] es = elements;
+            final int mask = es.length - 1;
+            int n = Math.min(max, (fence - cursor) & mask);
+            if (n <= 0) {
+                return 0;
+            }
+            int first = Math.min(n, es.length - cursor);
+            System.arraycopy(es, cursor, dst, off, first);
+            System.arraycopy(es, 0, dst, off + first, n - first);
+            cursor = (cursor + n) & mask;
+            lastRet = (cursor - 1) & mask;
+            return n;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            if (delete(lastRet)) { // if left-shifted, undo increment in next()
+                cursor = (cursor - 1) & (elements.length - 1);
+                fence = tail;
+            }
+            lastRet = -1;
+        }
+    }
+
+    private class DescendingIterator implements Iterator<E> {
+
+        private int cursor = tail;
+        private int fence = head;
+        private int lastRet = -1;
+
+        @Override
+        public boolean hasNext() {
+            return cursor != fence;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor == fence) {
+                throw new NoSuchElementException();
+            }
+            cursor = (cursor - 1) & (elements.length - 1);
+            E result = (E) elements[cursor];
+            if (head != fence || result == null) {
+                throw new ConcurrentModificationException();
+            }
+            lastRet = cursor;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            if (!delete(lastRet)) {
+                cursor = (cursor + 1) & (elements.length - 1);
+                fence = head;
+            }
+            lastRet = -1;
+        }
+    }
+}
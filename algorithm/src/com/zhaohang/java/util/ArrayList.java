@@ -0,0 +1,649 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Resizable-array implementation of the List interface.
+ * Implements all optional list operations, and permits all elements, including null.
+ * In addition to implementing the List interface,
+ * this class provides methods to manipulate the size of the array that is used internally to store the list.
+ *
+ * The size, isEmpty, get, set, iterator and listIterator operations run in constant time.
+ * The add operation runs in amortized constant time, that is, adding n elements requires O(n) time.
+ * Operations that shift elements (add(int, E), remove(int), addAll(int, Collection) and removeRange)
+ * move the whole tail of the array with a single System.arraycopy rather than one element at a time.
+ *
+ * Each ArrayList instance has a capacity.
+ * The capacity is the size of the array used to store the elements in the list.
+ * It is always at least as large as the list size.
+ * As elements are added to an ArrayList, its capacity grows automatically
+ * according to the GrowthPolicy the list was created with.
+ * An application can increase the capacity of an ArrayList instance before adding a large number of elements
+ * using the ensureCapacity operation. This may reduce the amount of incremental reallocation.
+ *
+ * A list that is mostly probed for elements it does not contain can attach a Bloom filter with attachBloomFilter;
+ * contains, indexOf, lastIndexOf and containsAll then return at once for most absent elements instead of scanning the array.
+ *
+ * Note that this implementation is not synchronized.
+ * The iterators returned by this class's iterator and listIterator methods are fail-fast,
+ * as described in the specification for the (protected) modCount field of AbstractList.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements in this list
+ */
+public class ArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Decides how large the backing array becomes when it has to grow.
+     */
+    @FunctionalInterface
+    public interface GrowthPolicy {
+
+        /**
+         * Returns the new capacity for a backing array of oldCapacity elements that must hold at least minCapacity elements.
+         * A returned value smaller than minCapacity is raised to minCapacity.
+         * @param oldCapacity the current length of the backing array.
+         * @param minCapacity the desired minimum capacity.
+         * @return the new capacity.
+         */
+        int newCapacity(int oldCapacity, int minCapacity);
+    }
+
+    /**
+     * Grows the array by half of its current length, as java.util.ArrayList does.
+     */
+    public static final GrowthPolicy DEFAULT_GROWTH = (oldCapacity, minCapacity) -> oldCapacity + (oldCapacity >> 1);
+
+    /**
+     * Doubles the length of the array, trading memory for fewer reallocations.
+     */
+    public static final GrowthPolicy DOUBLING_GROWTH = (oldCapacity, minCapacity) -> oldCapacity << 1;
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Shared empty array instance used for empty instances.
+     */
+    private static final Object[] EMPTY_ELEMENTDATA = {};
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in OutOfMemoryError:
+     * Requested array size exceeds VM limit.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The array buffer into which the elements of the ArrayList are stored.
+     * The capacity of the ArrayList is the length of this array buffer.
+     */
+    transient Object[] elementData;
+
+    /**
+     * The size of the ArrayList (the number of elements it contains).
+     */
+    private int size;
+
+    /**
+     * The policy used to compute the capacity of the array buffer when it grows.
+     */
+    private final GrowthPolicy growthPolicy;
+
+    /**
+     * Constructs an empty list with an initial capacity of ten.
+     */
+    public ArrayList() {
+        this(DEFAULT_CAPACITY, DEFAULT_GROWTH);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the list.
+     * @throws IllegalArgumentException if the specified initial capacity is negative.
+     */
+    public ArrayList(int initialCapacity) {
+        this(initialCapacity, DEFAULT_GROWTH);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity and growth policy.
+     * @param initialCapacity the initial capacity of the list.
+     * @param growthPolicy the policy used to compute the new capacity when the list grows.
+     * @throws IllegalArgumentException if the specified initial capacity is negative.
+     * @throws NullPointerException if the specified growth policy is null.
+     */
+    public ArrayList(int initialCapacity, GrowthPolicy growthPolicy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+        this.growthPolicy = Objects.requireNonNull(growthPolicy);
+        this.elementData = initialCapacity == 0 ? EMPTY_ELEMENTDATA : new Object[initialCapacity];
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @param c the collection whose elements are to be placed into this list.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public ArrayList(Collection<? extends E> c) {
+        this.growthPolicy = DEFAULT_GROWTH;
+        Object[] a = c.toArray();
+        this.size = a.length;
+        this.elementData = a.length == 0 ? EMPTY_ELEMENTDATA : Arrays.copyOf(a, a.length, Object[].class);
+    }
+
+    /**
+     * Attaches a Bloom filter over the elements of this list, built on the next lookup.
+     * Afterwards, contains, indexOf, lastIndexOf and containsAll skip the scan of the backing array
+     * for all but about the specified fraction of absent elements, at the cost of hashing every added element
+     * and about ten bits of memory per element for a 1% rate.
+     * Removals leave stale bits behind until the filter is rebuilt, which happens automatically
+     * once as many elements have been removed as remain.
+     * @param falsePositiveRate the target fraction of absent elements that still need a scan, such as 0.01.
+     * @throws IllegalArgumentException if the rate is not strictly between 0 and 1.
+     */
+    @Override
+    public void attachBloomFilter(double falsePositiveRate) {
+        super.attachBloomFilter(falsePositiveRate);
+    }
+
+    /**
+     * Detaches the Bloom filter of this list, if any, so lookups scan the backing array again.
+     */
+    @Override
+    public void detachBloomFilter() {
+        super.detachBloomFilter();
+    }
+
+    /**
+     * Trims the capacity of this ArrayList instance to be the list's current size.
+     * An application can use this operation to minimize the storage of an ArrayList instance.
+     */
+    public void trimToSize() {
+        modCount++;
+        if (size < elementData.length) {
+            elementData = size == 0 ? EMPTY_ELEMENTDATA : Arrays.copyOf(elementData, size);
+        }
+    }
+
+    /**
+     * Increases the capacity of this ArrayList instance, if necessary,
+     * to ensure that it can hold at least the number of elements specified by the minimum capacity argument.
+     * @param minCapacity the desired minimum capacity.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elementData.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Increases the capacity to ensure that it can hold at least the number of elements specified by the minimum capacity argument.
+     * @param minCapacity the desired minimum capacity.
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) { // overflow
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        int oldCapacity = elementData.length;
+        int newCapacity = growthPolicy.newCapacity(oldCapacity, minCapacity);
+        // overflow-conscious code
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        }
+        if (newCapacity - MAX_ARRAY_SIZE > 0) {
+            newCapacity = minCapacity > MAX_ARRAY_SIZE ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+        }
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this list contains no elements.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if this list contains the specified element.
+     */
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element in this list,
+     * or -1 if this list does not contain the element.
+     * This implementation scans the backing array directly instead of going through a list iterator,
+     * unless an attached Bloom filter proves the element absent.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (definitelyAbsent(o)) {
+            return -1;
+        }
+        Object[] es = elementData;
+        if (o == null) {
+            for (int i = 0; i < size; i++) {
+                if (es[i] == null) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (o.equals(es[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of the specified element in this list,
+     * or -1 if this list does not contain the element.
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        if (definitelyAbsent(o)) {
+            return -1;
+        }
+        Object[] es = elementData;
+        if (o == null) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (es[i] == null) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = size - 1; i >= 0; i--) {
+                if (o.equals(es[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns an array containing all the elements in this list in proper sequence (from first to last element).
+     * The returned array is a fresh copy of the used part of the backing array.
+     */
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elementData, size);
+    }
+
+    /**
+     * Returns an array containing all the elements in this list in proper sequence (from first to last element);
+     * the runtime type of the returned array is that of the specified array.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) {
+            // Make a new array of a's runtime type, but my contents:
+            return (T[]) Arrays.copyOf(elementData, size, a.getClass());
+        }
+        System.arraycopy(elementData, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Copies a range of elements straight out of the backing array with a single array copy.
+     */
+    @Override
+    protected void copyTo(int fromIndex, Object[] dst, int dstOffset, int length) {
+        System.arraycopy(elementData, fromIndex, dst, dstOffset, length);
+    }
+
+    @SuppressWarnings("unchecked")
+    E elementData(int index) {
+        return (E) elementData[index];
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E get(int index) {
+        rangeCheck(index);
+        return elementData(index);
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the specified element.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E set(int index, E element) {
+        rangeCheck(index);
+        E oldValue = elementData(index);
+        elementData[index] = element;
+        bloomRemoved(1);
+        bloomAdd(element);
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     * @return true (as specified by Collection.add)
+     */
+    @Override
+    public boolean add(E e) {
+        modCount++;
+        if (size == elementData.length) {
+            grow(size + 1);
+        }
+        elementData[size++] = e;
+        bloomAdd(e);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list.
+     * Shifts the element currently at that position (if any) and any subsequent elements to the right
+     * (adds one to their indices) with a single array copy.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public void add(int index, E element) {
+        rangeCheckForAdd(index);
+        modCount++;
+        if (size == elementData.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elementData, index, elementData, index + 1, size - index);
+        elementData[index] = element;
+        size++;
+        bloomAdd(element);
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * Shifts any subsequent elements to the left (subtracts one from their indices) with a single array copy.
+     * @return the element that was removed from the list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E remove(int index) {
+        rangeCheck(index);
+        modCount++;
+        E oldValue = elementData(index);
+        fastRemove(index);
+        return oldValue;
+    }
+
+    /**
+     * Removes the first occurrence of the specified element from this list, if it is present.
+     * @return true if this list contained the specified element.
+     */
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        modCount++;
+        fastRemove(index);
+        return true;
+    }
+
+    /**
+     * Private remove method that skips bounds checking and does not return the value removed.
+     */
+    private void fastRemove(int index) {
+        int numMoved = size - index - 1;
+        if (numMoved > 0) {
+            System.arraycopy(elementData, index + 1, elementData, index, numMoved);
+        }
+        // clear to let GC do its work
+        elementData[--size] = null;
+        bloomRemoved(1);
+    }
+
+    /**
+     * Removes all the elements from this list.
+     * The list will be empty after this call returns.
+     * This implementation nulls out the used part of the backing array in one pass
+     * instead of removing the elements one at a time.
+     */
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(elementData, 0, size, null);
+        bloomRemoved(size);
+        size = 0;
+    }
+
+    /**
+     * Appends all the elements in the specified collection to the end of this list,
+     * in the order that they are returned by the specified collection's iterator.
+     * @return true if this list changed as a result of the call.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        modCount++;
+        int numNew = a.length;
+        if (numNew == 0) {
+            return false;
+        }
+        if (numNew > elementData.length - size) {
+            grow(size + numNew);
+        }
+        System.arraycopy(a, 0, elementData, size, numNew);
+        size += numNew;
+        for (Object e : a) {
+            bloomAdd(e);
+        }
+        return true;
+    }
+
+    /**
+     * Inserts all the elements in the specified collection into this list, starting at the specified position.
+     * The tail of the list is shifted once by the number of inserted elements.
+     * @return true if this list changed as a result of the call.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        rangeCheckForAdd(index);
+        Object[] a = c.toArray();
+        modCount++;
+        int numNew = a.length;
+        if (numNew == 0) {
+            return false;
+        }
+        if (numNew > elementData.length - size) {
+            grow(size + numNew);
+        }
+        int numMoved = size - index;
+        if (numMoved > 0) {
+            System.arraycopy(elementData, index, elementData, index + numNew, numMoved);
+        }
+        System.arraycopy(a, 0, elementData, index, numNew);
+        size += numNew;
+        for (Object e : a) {
+            bloomAdd(e);
+        }
+        return true;
+    }
+
+    /**
+     * Removes from this list all the elements whose index is between fromIndex, inclusive, and toIndex, exclusive.
+     * Shifts any succeeding elements to the left (reduces their index) with a single array copy.
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of range
+     *         (fromIndex < 0 || toIndex > size() || toIndex < fromIndex).
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+        }
+        modCount++;
+        System.arraycopy(elementData, toIndex, elementData, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        // clear to let GC do its work
+        Arrays.fill(elementData, newSize, size, null);
+        bloomRemoved(size - newSize);
+        size = newSize;
+    }
+
+    /**
+     * Removes the elements in the given range that satisfy the predicate, working on the backing array:
+     * one pass marks the victims in a bitset, a second pass moves the survivors down,
+     * and the tail of the list is shifted once. The list is unchanged if the predicate throws.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+        Objects.requireNonNull(filter);
+        final int expectedModCount = modCount;
+        final Object[] es = elementData;
+        int i = fromIndex;
+        // optimize for initial run of survivors
+        while (i < toIndex && !filter.test((E) es[i])) {
+            i++;
+        }
+        if (i < toIndex) {
+            final int beg = i;
+            final long[] deathRow = nBits(toIndex - beg);
+            deathRow[0] = 1L; // set bit 0
+            for (i = beg + 1; i < toIndex; i++) {
+                if (filter.test((E) es[i])) {
+                    setBit(deathRow, i - beg);
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            modCount++;
+            int w = beg;
+            for (i = beg; i < toIndex; i++) {
+                if (isClear(deathRow, i - beg)) {
+                    es[w++] = es[i];
+                }
+            }
+            // shift the tail over the gap left by the removed elements
+            System.arraycopy(es, toIndex, es, w, size - toIndex);
+            int newSize = size - (toIndex - w);
+            // clear to let GC do its work
+            Arrays.fill(es, newSize, size, null);
+            bloomRemoved(size - newSize);
+            size = newSize;
+            return true;
+        } else {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Sorts this list according to the order induced by the specified comparator
+     * (the natural ordering if it is null).
+     * The backing array is sorted in place with Arrays.sort, a stable merge sort,
+     * without copying the elements out and writing them back one set call at a time.
+     * @throws ConcurrentModificationException if the comparator modified this list.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        Arrays.sort((E[]) elementData, 0, size, c);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
+    /**
+     * Sorts this list in place like sort(Comparator), using several threads.
+     * Above a size threshold, Arrays.parallelSort splits the backing array into pieces
+     * that are sorted and merged by fork/join tasks in the common pool; below it, it sorts sequentially.
+     * The sort is stable.
+     * @param c the comparator to determine the order of the list, or null for the natural ordering.
+     * @throws ConcurrentModificationException if the comparator modified this list.
+     */
+    @SuppressWarnings("unchecked")
+    public void parallelSort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        Arrays.parallelSort((E[]) elementData, 0, size, c);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order.
+     * The loop runs directly over the backing array, allocates no iterator,
+     * and checks modCount once at the end.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final Object[] es = elementData;
+        final int size = this.size;
+        for (int i = 0; modCount == expectedModCount && i < size; i++) {
+            action.accept((E) es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Checks if the given index is in range.
+     * If not, throws an appropriate runtime exception.
+     */
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    /**
+     * A version of rangeCheck used by add and addAll.
+     */
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+}
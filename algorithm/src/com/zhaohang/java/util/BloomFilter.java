@@ -0,0 +1,150 @@
+package com.zhaohang.java.util;
+
+/**
+ * A blocked Bloom filter over the elements of a collection, used to answer "definitely absent" without scanning it.
+ * The bit array is divided into 512-bit blocks, one cache line each. An element selects one block from its hash
+ * and sets k bits inside it, so adding or probing an element touches a single cache line.
+ * A negative answer is exact: an element that was added is always reported as possibly present.
+ *
+ * Elements cannot be taken out of a Bloom filter, so removals from the collection are only counted;
+ * the bits of removed elements stay set and merely raise the false positive rate.
+ * The filter asks to be rebuilt from the collection when more elements have been added than it was sized for,
+ * or when more elements have been removed since the last rebuild than the collection now holds.
+ * Either takes a number of updates proportional to the size of the collection,
+ * so the amortized cost of the rebuilds is constant per update.
+ * A rebuild never changes a filter in place: it fills a new filter, which the collection then publishes,
+ * because it happens on a lookup and lookups may run concurrently on a collection that is not being modified.
+ *
+ * AbstractCollection and AbstractList hold an optional filter of this kind for their subclasses;
+ * see their attachBloomFilter methods.
+ */
+final class BloomFilter {
+
+    /**
+     * log2 of the number of longs in a block: 8 longs, 512 bits.
+     */
+    private static final int BLOCK_SHIFT = 3;
+
+    /**
+     * The filter is sized for at least this many elements.
+     */
+    private static final int MIN_CAPACITY = 64;
+
+    private static final double LN2 = Math.log(2);
+
+    private final double falsePositiveRate;
+
+    /**
+     * Bits per element for the target false positive rate, and the number of bits set per element.
+     */
+    private final double bitsPerElement;
+    private final int numHashes;
+
+    private long[] bits;
+    private int blockMask;
+
+    /**
+     * Number of elements the bit array was sized for; added and removed count updates since the last rebuild.
+     */
+    private int capacity;
+    private int added;
+    private int removed;
+
+    /**
+     * True until the filter has been built from the collection for the first time.
+     */
+    private boolean unbuilt = true;
+
+    /**
+     * Creates an unbuilt filter with the specified target false positive rate.
+     * @throws IllegalArgumentException if the rate is not strictly between 0 and 1.
+     */
+    BloomFilter(double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Illegal false positive rate: " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.bitsPerElement = -Math.log(falsePositiveRate) / (LN2 * LN2);
+        this.numHashes = (int) Math.max(1, Math.min(16, Math.round(bitsPerElement * LN2)));
+    }
+
+    /**
+     * Returns true if the filter must be rebuilt from a collection that now holds the specified number of elements.
+     */
+    boolean needsRebuild(int size) {
+        return unbuilt || added > capacity || removed > size;
+    }
+
+    /**
+     * Returns a new, empty filter with the same false positive rate, sized for twice the specified number of elements,
+     * leaving room to grow before the next rebuild.
+     * The caller adds every element of the collection to it before publishing it in place of this filter.
+     */
+    BloomFilter rebuilt(int size) {
+        BloomFilter f = new BloomFilter(falsePositiveRate);
+        int newCapacity = (int) Math.min(Math.max(2L * size, MIN_CAPACITY), Integer.MAX_VALUE >> 1);
+        long words = (long) Math.ceil(newCapacity * bitsPerElement / Long.SIZE);
+        int blocks = Integer.highestOneBit((int) Math.min(Math.max(words >> BLOCK_SHIFT, 1), 1 << 24));
+        f.bits = new long[blocks << BLOCK_SHIFT];
+        f.blockMask = blocks - 1;
+        f.capacity = newCapacity;
+        f.unbuilt = false;
+        return f;
+    }
+
+    /**
+     * Returns a 64-bit mix of the hash code of the element, with well distributed bits for the block and bit choices.
+     */
+    private static long mix(Object o) {
+        long h = (o == null ? 0 : o.hashCode()) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Records the specified element as present.
+     */
+    void add(Object o) {
+        added++;
+        if (unbuilt) {
+            return;
+        }
+        long h = mix(o);
+        final long[] bits = this.bits;
+        int base = ((int) (h >>> 32) & blockMask) << BLOCK_SHIFT;
+        int g = (int) h;
+        for (int i = 0; i < numHashes; i++) {
+            // 9 bits of g pick one of the 512 bits of the block
+            int bit = g & 511;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+            g = (g >>> 9) | (g << 23);
+            g += (int) (h >>> 32) | 1;
+        }
+    }
+
+    /**
+     * Records that the specified number of elements have been removed from the collection.
+     */
+    void removed(int count) {
+        removed += count;
+    }
+
+    /**
+     * Returns false if the specified element has definitely not been added since the last rebuild.
+     * Must not be called while the filter needs a rebuild.
+     */
+    boolean mightContain(Object o) {
+        long h = mix(o);
+        final long[] bits = this.bits;
+        int base = ((int) (h >>> 32) & blockMask) << BLOCK_SHIFT;
+        int g = (int) h;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = g & 511;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            g = (g >>> 9) | (g << 23);
+            g += (int) (h >>> 32) | 1;
+        }
+        return true;
+    }
+}
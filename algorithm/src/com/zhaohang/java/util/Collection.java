@@ -3,7 +3,10 @@ package com.zhaohang.java.util;
 import com.zhaohang.java.lang.Iterable;
 
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The root interface in the Collection hierarchy.
@@ -294,9 +297,36 @@ public interface Collection<E> extends Iterable<E> {
      */
     int hashCode();
 
+    /**
+     * Creates a Spliterator over the elements in this collection.
+     * Implementations should document characteristic values reported by the spliterator.
+     * The default implementation creates a late-binding spliterator from the collection's Iterator.
+     * The spliterator inherits the fail-fast properties of the collection's iterator.
+     * The created spliterator additionally reports SIZED and SUBSIZED.
+     * Implementation Note: The created spliterator splits by copying batches of elements into arrays.
+     * Collections that can split their storage directly, such as array-backed lists, should override this method.
+     * @return a Spliterator over the elements in this collection.
+     */
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, 0);
+    }
 
+    /**
+     * Returns a sequential Stream with this collection as its source.
+     * The default implementation creates a sequential Stream from the collection's Spliterator.
+     * @return a sequential Stream over the elements in this collection.
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 
-
-
-
+    /**
+     * Returns a possibly parallel Stream with this collection as its source.
+     * It is allowable for this method to return a sequential stream.
+     * The default implementation creates a parallel Stream from the collection's Spliterator.
+     * @return a possibly parallel Stream over the elements in this collection.
+     */
+    default Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
@@ -0,0 +1,592 @@
+package com.zhaohang.java.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Static factories for lazy views of collections: mapped, filtered, concatenated and zipped.
+ * A view holds only references to its sources and computes each element when it is accessed;
+ * nothing is copied, so handing a transformed list to code that only reads it (a serializer, for example)
+ * allocates no intermediate list. Because they are views, they reflect later changes to their sources,
+ * and the mapping and filtering functions run again on every access, so they should be cheap and free of side effects.
+ * A view that is read many times, or whose functions are expensive, should be copied into a list once instead.
+ *
+ * List views over sources that all implement RandomAccess implement it too, with constant-time get and size
+ * (assuming the sources have them). The views are read-only, except that mapped and filtered views
+ * pass removals through to their source.
+ */
+public final class Collections {
+
+    private Collections() {}
+
+    /**
+     * Returns a list that applies the specified function to each element of the specified list, on access.
+     * The returned list implements RandomAccess if the source does, and then get(int) calls get on the source
+     * and applies the function, in constant time; otherwise it is a sequential list walking the source's list iterator.
+     * Removing from the view removes from the source; set and add are not supported.
+     * @throws NullPointerException if the list or the function is null.
+     */
+    public static <T, R> List<R> mapped(List<T> list, Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(list);
+        Objects.requireNonNull(mapper);
+        return list instanceof RandomAccess
+                ? new RandomAccessMappedList<>(list, mapper)
+                : new MappedSequentialList<>(list, mapper);
+    }
+
+    /**
+     * Returns a collection that applies the specified function to each element of the specified collection, on access.
+     * Its size is the size of the source; removing through its iterator removes from the source.
+     * @throws NullPointerException if the collection or the function is null.
+     */
+    public static <T, R> Collection<R> mapped(Collection<T> c, Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(c);
+        Objects.requireNonNull(mapper);
+        return new MappedCollection<>(c, mapper);
+    }
+
+    /**
+     * Returns a collection of the elements of the specified collection that satisfy the predicate, tested on access.
+     * size() has to test every element of the source; isEmpty() stops at the first match.
+     * add rejects elements that do not satisfy the predicate with an IllegalArgumentException,
+     * and clear and removeIf remove the matching elements from the source.
+     * The iterator does not support remove.
+     * @throws NullPointerException if the collection or the predicate is null.
+     */
+    public static <T> Collection<T> filtered(Collection<T> c, Predicate<? super T> predicate) {
+        Objects.requireNonNull(c);
+        Objects.requireNonNull(predicate);
+        return new FilteredCollection<>(c, predicate);
+    }
+
+    /**
+     * Returns a read-only list of the elements of the first list followed by those of the second.
+     * The returned list implements RandomAccess if both sources do.
+     * Its iterator and forEach walk the two sources in turn, so traversal is linear for any kind of source.
+     * @throws NullPointerException if either list is null.
+     */
+    public static <T> List<T> concat(List<? extends T> first, List<? extends T> second) {
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+        return first instanceof RandomAccess && second instanceof RandomAccess
+                ? new RandomAccessConcatList<>(first, second)
+                : new ConcatList<>(first, second);
+    }
+
+    /**
+     * Returns a read-only collection of the elements of the first collection followed by those of the second.
+     * @throws NullPointerException if either collection is null.
+     */
+    public static <T> Collection<T> concat(Collection<? extends T> first, Collection<? extends T> second) {
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+        return new ConcatCollection<>(first, second);
+    }
+
+    /**
+     * Returns a read-only list whose element i is the function applied to element i of each of the two lists.
+     * Its size is the size of the shorter list. The returned list implements RandomAccess if both sources do;
+     * its iterator walks the two sources in lockstep, so traversal is linear for any kind of source.
+     * @throws NullPointerException if either list or the function is null.
+     */
+    public static <A, B, R> List<R> zip(List<A> first, List<B> second, BiFunction<? super A, ? super B, ? extends R> zipper) {
+        Objects.requireNonNull(first);
+        Objects.requireNonNull(second);
+        Objects.requireNonNull(zipper);
+        return first instanceof RandomAccess && second instanceof RandomAccess
+                ? new RandomAccessZippedList<>(first, second, zipper)
+                : new ZippedList<>(first, second, zipper);
+    }
+
+    private static class RandomAccessMappedList<T, R> extends AbstractList<R> implements RandomAccess {
+
+        final List<T> source;
+        final Function<? super T, ? extends R> mapper;
+
+        RandomAccessMappedList(List<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public R get(int index) {
+            return mapper.apply(source.get(index));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return source.isEmpty();
+        }
+
+        @Override
+        public R remove(int index) {
+            return mapper.apply(source.remove(index));
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            source.subList(fromIndex, toIndex).clear();
+        }
+
+        @Override
+        public void clear() {
+            source.clear();
+        }
+
+        /**
+         * Forwards to removeIf on the source, or on the corresponding range of it,
+         * testing the mapped elements; the default would compact the view with set, which it does not support.
+         */
+        @Override
+        protected boolean bulkRemove(Predicate<? super R> filter, int fromIndex, int toIndex) {
+            Predicate<T> mapped = e -> filter.test(mapper.apply(e));
+            if (fromIndex == 0 && toIndex == source.size()) {
+                return source.removeIf(mapped);
+            }
+            return source.subList(fromIndex, toIndex).removeIf(mapped);
+        }
+
+        @Override
+        public void forEach(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            source.forEach(e -> action.accept(mapper.apply(e)));
+        }
+    }
+
+    private static class MappedSequentialList<T, R> extends AbstractSequentialList<R> {
+
+        final List<T> source;
+        final Function<? super T, ? extends R> mapper;
+
+        MappedSequentialList(List<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return source.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            source.clear();
+        }
+
+        @Override
+        public void forEach(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            source.forEach(e -> action.accept(mapper.apply(e)));
+        }
+
+        @Override
+        public ListIterator<R> listIterator(int index) {
+            final ListIterator<T> it = source.listIterator(index);
+            return new ListIterator<R>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public R next() {
+                    return mapper.apply(it.next());
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return it.hasPrevious();
+                }
+
+                @Override
+                public R previous() {
+                    return mapper.apply(it.previous());
+                }
+
+                @Override
+                public int nextIndex() {
+                    return it.nextIndex();
+                }
+
+                @Override
+                public int previousIndex() {
+                    return it.previousIndex();
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+
+                @Override
+                public void set(R r) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void add(R r) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    private static class MappedCollection<T, R> extends AbstractCollection<R> {
+
+        final Collection<T> source;
+        final Function<? super T, ? extends R> mapper;
+
+        MappedCollection(Collection<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Iterator<R> iterator() {
+            final Iterator<T> it = source.iterator();
+            return new Iterator<R>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public R next() {
+                    return mapper.apply(it.next());
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return source.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            source.clear();
+        }
+
+        @Override
+        public void forEach(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            source.forEach(e -> action.accept(mapper.apply(e)));
+        }
+    }
+
+    private static class FilteredCollection<T> extends AbstractCollection<T> {
+
+        final Collection<T> source;
+        final Predicate<? super T> predicate;
+
+        FilteredCollection(Collection<T> source, Predicate<? super T> predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Iterator<T> it = source.iterator();
+            return new Iterator<T>() {
+                /**
+                 * The next matching element, valid if ready is true.
+                 */
+                T next;
+                boolean ready;
+
+                @Override
+                public boolean hasNext() {
+                    while (!ready && it.hasNext()) {
+                        T e = it.next();
+                        if (predicate.test(e)) {
+                            next = e;
+                            ready = true;
+                        }
+                    }
+                    return ready;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    ready = false;
+                    T e = next;
+                    next = null;
+                    return e;
+                }
+            };
+        }
+
+        /**
+         * Counts the matching elements of the source, in linear time.
+         */
+        @Override
+        public int size() {
+            int n = 0;
+            for (T e : source) {
+                if (predicate.test(e)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!source.contains(o)) {
+                return false;
+            }
+            try {
+                return predicate.test((T) o);
+            } catch (ClassCastException unused) {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean add(T e) {
+            if (!predicate.test(e)) {
+                throw new IllegalArgumentException("Element does not satisfy the filter: " + e);
+            }
+            return source.add(e);
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super T> filter) {
+            Objects.requireNonNull(filter);
+            return source.removeIf(e -> predicate.test(e) && filter.test(e));
+        }
+
+        @Override
+        public void clear() {
+            source.removeIf(predicate);
+        }
+
+        @Override
+        public void forEach(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            source.forEach(e -> {
+                if (predicate.test(e)) {
+                    action.accept(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements of the first iterator followed by those of the second.
+     */
+    private static <T> Iterator<T> chain(final Iterator<? extends T> first, final Iterator<? extends T> second) {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return first.hasNext() ? first.next() : second.next();
+            }
+        };
+    }
+
+    private static class ConcatList<T> extends AbstractList<T> {
+
+        final List<? extends T> first;
+        final List<? extends T> second;
+
+        ConcatList(List<? extends T> first, List<? extends T> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public T get(int index) {
+            int n = first.size();
+            if (index < 0 || index >= n + second.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return index < n ? first.get(index) : second.get(index - n);
+        }
+
+        @Override
+        public int size() {
+            return first.size() + second.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return first.isEmpty() && second.isEmpty();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return chain(first.iterator(), second.iterator());
+        }
+
+        @Override
+        public void forEach(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            first.forEach(action);
+            second.forEach(action);
+        }
+    }
+
+    private static class RandomAccessConcatList<T> extends ConcatList<T> implements RandomAccess {
+
+        RandomAccessConcatList(List<? extends T> first, List<? extends T> second) {
+            super(first, second);
+        }
+    }
+
+    private static class ConcatCollection<T> extends AbstractCollection<T> {
+
+        final Collection<? extends T> first;
+        final Collection<? extends T> second;
+
+        ConcatCollection(Collection<? extends T> first, Collection<? extends T> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return chain(first.iterator(), second.iterator());
+        }
+
+        @Override
+        public int size() {
+            return first.size() + second.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return first.isEmpty() && second.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return first.contains(o) || second.contains(o);
+        }
+
+        @Override
+        public void forEach(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            first.forEach(action);
+            second.forEach(action);
+        }
+    }
+
+    private static class ZippedList<A, B, R> extends AbstractList<R> {
+
+        final List<A> first;
+        final List<B> second;
+        final BiFunction<? super A, ? super B, ? extends R> zipper;
+
+        ZippedList(List<A> first, List<B> second, BiFunction<? super A, ? super B, ? extends R> zipper) {
+            this.first = first;
+            this.second = second;
+            this.zipper = zipper;
+        }
+
+        @Override
+        public R get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return zipper.apply(first.get(index), second.get(index));
+        }
+
+        @Override
+        public int size() {
+            return Math.min(first.size(), second.size());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return first.isEmpty() || second.isEmpty();
+        }
+
+        @Override
+        public Iterator<R> iterator() {
+            final Iterator<A> a = first.iterator();
+            final Iterator<B> b = second.iterator();
+            return new Iterator<R>() {
+                @Override
+                public boolean hasNext() {
+                    return a.hasNext() && b.hasNext();
+                }
+
+                @Override
+                public R next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return zipper.apply(a.next(), b.next());
+                }
+            };
+        }
+
+        @Override
+        public void forEach(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            iterator().forEachRemaining(action);
+        }
+    }
+
+    private static class RandomAccessZippedList<A, B, R> extends ZippedList<A, B, R> implements RandomAccess {
+
+        RandomAccessZippedList(List<A> first, List<B> second, BiFunction<? super A, ? super B, ? extends R> zipper) {
+            super(first, second, zipper);
+        }
+
+        /**
+         * Walks both sources by index, in constant time per element.
+         */
+        @Override
+        public void forEach(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            for (int i = 0, n = size(); i < n; i++) {
+                action.accept(zipper.apply(first.get(i), second.get(i)));
+            }
+        }
+    }
+}
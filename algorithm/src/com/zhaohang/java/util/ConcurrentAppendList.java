@@ -0,0 +1,408 @@
+package com.zhaohang.java.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe, append-only list for many concurrent producers.
+ * The elements are stored in chunks whose capacities double: the first chunk holds 32 elements,
+ * the next 64, and so on, so that existing elements are never copied when the list grows.
+ *
+ * A producer claims a slot with a single compare-and-set on the size counter and then publishes its element
+ * into that slot with a release write; addAll claims a whole block of slots with one compare-and-set.
+ * Chunks are allocated on demand by whichever producer first needs them and installed with a compare-and-set,
+ * so no lock is ever taken. A producer installs the chunks for its slots before it claims them,
+ * so a failed allocation leaves no claimed slot behind. Readers take no lock either: get reads the slot with an acquire read,
+ * which makes every write that happened before the element was added visible to the reader.
+ *
+ * The size counts claimed slots. A slot whose producer has claimed it but not yet written it
+ * is briefly empty; get, iteration and toArray wait for such a slot to be filled, which takes only as long
+ * as the producer needs to store one reference, since nothing that can fail runs between the claim and the store.
+ * The iterators are weakly consistent: they return the elements present when they were created
+ * and never throw ConcurrentModificationException.
+ *
+ * Elements can be added and replaced but never removed, so the removing operations
+ * throw UnsupportedOperationException. Null elements are not permitted.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements held in this list.
+ */
+public class ConcurrentAppendList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Log2 of the capacity of the first chunk.
+     */
+    private static final int FIRST_SHIFT = 5;
+
+    /**
+     * Capacity of the first chunk; chunk k holds FIRST_CAPACITY << k elements.
+     */
+    private static final int FIRST_CAPACITY = 1 << FIRST_SHIFT;
+
+    /**
+     * The largest number of elements this list can hold, chosen so that index + FIRST_CAPACITY never overflows.
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - FIRST_CAPACITY;
+
+    /**
+     * Number of chunks needed to address MAX_SIZE elements.
+     */
+    private static final int MAX_CHUNKS = 31 - FIRST_SHIFT;
+
+    private static final VarHandle SIZE;
+    private static final VarHandle CHUNKS = MethodHandles.arrayElementVarHandle(Object[][].class);
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            SIZE = MethodHandles.lookup().findVarHandle(ConcurrentAppendList.class, "size", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The chunks, allocated lazily; chunk k starts at list index FIRST_CAPACITY * (2^k - 1).
+     */
+    private final Object[][] chunks = new Object[MAX_CHUNKS][];
+
+    /**
+     * The number of claimed slots.
+     */
+    private volatile int size;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ConcurrentAppendList() {}
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    public ConcurrentAppendList(Collection<? extends E> c) {
+        addAll(c);
+    }
+
+    /**
+     * Returns the chunk that holds the specified index.
+     */
+    private static int chunkIndex(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index + FIRST_CAPACITY) - FIRST_SHIFT;
+    }
+
+    /**
+     * Returns the position of the specified index within its chunk.
+     */
+    private static int chunkOffset(int index, int chunk) {
+        return index + FIRST_CAPACITY - (FIRST_CAPACITY << chunk);
+    }
+
+    /**
+     * Returns chunk k, allocating and installing it if no producer has done so yet.
+     */
+    private Object[] chunk(int k) {
+        Object[] c = (Object[]) CHUNKS.getAcquire(chunks, k);
+        if (c != null) {
+            return c;
+        }
+        Object[] fresh = new Object[FIRST_CAPACITY << k];
+        Object[] witness = (Object[]) CHUNKS.compareAndExchangeRelease(chunks, k, null, fresh);
+        return witness == null ? fresh : witness;
+    }
+
+    /**
+     * Claims n consecutive slots and returns the index of the first one.
+     * The chunks covering the slots are installed before the slots are claimed:
+     * if allocating one throws an OutOfMemoryError, no slot is claimed and readers never wait for it.
+     */
+    private int reserve(int n) {
+        for (;;) {
+            int s = size;
+            if (s > MAX_SIZE - n) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            for (int k = chunkIndex(s), last = chunkIndex(s + n - 1); k <= last; k++) {
+                chunk(k);
+            }
+            if (SIZE.compareAndSet(this, s, s + n)) {
+                return s;
+            }
+        }
+    }
+
+    /**
+     * Reads the element at a claimed index, waiting for its producer to publish it if necessary.
+     * The chunk itself is always present, since it was installed before the slot was claimed.
+     */
+    @SuppressWarnings("unchecked")
+    private E await(int index) {
+        int k = chunkIndex(index);
+        int offset = chunkOffset(index, k);
+        Object[] c = (Object[]) CHUNKS.getAcquire(chunks, k);
+        Object e;
+        while ((e = ELEMENTS.getAcquire(c, offset)) == null) {
+            Thread.onSpinWait();
+        }
+        return (E) e;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element at the specified position in this list. Takes no lock.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E get(int index) {
+        rangeCheck(index);
+        return await(index);
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the specified element.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws NullPointerException if the specified element is null.
+     */
+    @Override
+    public E set(int index, E element) {
+        Objects.requireNonNull(element);
+        rangeCheck(index);
+        E oldValue = await(index);
+        int k = chunkIndex(index);
+        ELEMENTS.setRelease(chunk(k), chunkOffset(index, k), element);
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     * Claims a slot with a single compare-and-set and never copies existing elements.
+     * @throws NullPointerException if the specified element is null.
+     */
+    @Override
+    public boolean add(E e) {
+        Objects.requireNonNull(e);
+        int index = reserve(1);
+        int k = chunkIndex(index);
+        ELEMENTS.setRelease(chunk(k), chunkOffset(index, k), e);
+        return true;
+    }
+
+    /**
+     * Appends all the elements in the specified collection to the end of this list as one contiguous block,
+     * in the order they are returned by the collection's toArray.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        int n = a.length;
+        if (n == 0) {
+            return false;
+        }
+        for (Object o : a) {
+            Objects.requireNonNull(o);
+        }
+        int index = reserve(n);
+        int done = 0;
+        while (done < n) {
+            int k = chunkIndex(index + done);
+            int offset = chunkOffset(index + done, k);
+            Object[] chunk = chunk(k);
+            int count = Math.min(n - done, chunk.length - offset);
+            for (int i = 0; i < count; i++) {
+                ELEMENTS.setRelease(chunk, offset + i, a[done + i]);
+            }
+            done += count;
+        }
+        return true;
+    }
+
+    /**
+     * Always throws UnsupportedOperationException, unless index == size(),
+     * in which case the element is appended.
+     */
+    @Override
+    public void add(int index, E element) {
+        if (index != size) {
+            throw new UnsupportedOperationException("append only");
+        }
+        add(element);
+    }
+
+    /**
+     * Not supported. Always throws UnsupportedOperationException.
+     */
+    @Override
+    public E remove(int index) {
+        throw new UnsupportedOperationException("append only");
+    }
+
+    /**
+     * Not supported. Always throws UnsupportedOperationException.
+     */
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("append only");
+    }
+
+    /**
+     * Not supported. Always throws UnsupportedOperationException.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        throw new UnsupportedOperationException("append only");
+    }
+
+    /**
+     * Not supported. Always throws UnsupportedOperationException,
+     * so removeIf, removeAll and retainAll fail without touching the list.
+     */
+    @Override
+    protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+        throw new UnsupportedOperationException("append only");
+    }
+
+    /**
+     * Not supported. Always throws UnsupportedOperationException.
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("append only");
+    }
+
+    /**
+     * Returns an iterator over the elements present when it was created. The iterator does not support remove.
+     */
+    @Override
+    public java.util.Iterator<E> iterator() {
+        return new Itr(size);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        int n = size;
+        for (int i = 0; i < n; i++) {
+            if (o.equals(await(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (o.equals(await(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        int n = size;
+        Object[] r = new Object[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = await(i);
+        }
+        return r;
+    }
+
+    /**
+     * Performs the given action for each element present when the traversal starts, in order,
+     * walking the chunks directly.
+     * @throws NullPointerException if the specified action is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int n = size;
+        int base = 0;
+        for (int k = 0; base < n; k++) {
+            Object[] c = (Object[]) CHUNKS.getAcquire(chunks, k);
+            int count = Math.min(FIRST_CAPACITY << k, n - base);
+            for (int i = 0; i < count; i++) {
+                Object e = ELEMENTS.getAcquire(c, i);
+                action.accept(e != null ? (E) e : await(base + i));
+            }
+            base += count;
+        }
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+
+    private class Itr implements java.util.Iterator<E> {
+
+        /**
+         * Index of the next element to return.
+         */
+        int cursor;
+
+        /**
+         * The size when this iterator was created.
+         */
+        final int fence;
+
+        Itr(int fence) {
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < fence;
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= fence) {
+                throw new NoSuchElementException();
+            }
+            return await(cursor++);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int i = cursor;
+            cursor = fence;
+            for (; i < fence; i++) {
+                action.accept(await(i));
+            }
+        }
+    }
+}
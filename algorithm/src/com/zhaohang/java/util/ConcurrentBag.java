@@ -0,0 +1,470 @@
+package com.zhaohang.java.util;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * An unordered, thread-safe collection whose storage is striped so that concurrent writers do not contend.
+ * The elements are spread over a fixed number of stripes, about two per available processor.
+ * Each thread always adds to the same stripe, picked from a hash of its id, so add touches no shared state:
+ * it locks one stripe that, as long as there are no more active threads than stripes, is usually locked by nobody else.
+ * Add throughput therefore keeps growing with the number of cores instead of flattening out on a single lock.
+ *
+ * Like LongAdder, size() sums the per-stripe counts without locking;
+ * while other threads are adding, the result is only an estimate.
+ * The bulk operations (contains, remove, removeIf, clear, toArray, drain) visit every stripe in turn,
+ * locking one stripe at a time, so they are not atomic with respect to the bag as a whole.
+ * Iterators are weakly consistent: each stripe is copied when the iterator reaches it,
+ * they never throw ConcurrentModificationException, and they support remove.
+ *
+ * The bag suits workloads that collect everything first and then consume it all at once through drain.
+ * It permits null and duplicate elements and makes no guarantee about the order of iteration.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements held in this collection.
+ */
+public class ConcurrentBag<E> extends AbstractCollection<E> {
+
+    /**
+     * Initial capacity of a stripe.
+     */
+    private static final int STRIPE_CAPACITY = 16;
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in OutOfMemoryError:
+     * Requested array size exceeds VM limit.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The stripes; the length is a power of two.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Creates an empty bag with about two stripes per available processor.
+     */
+    public ConcurrentBag() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Creates an empty bag with at least the specified number of stripes.
+     * @param concurrencyLevel the expected number of concurrently adding threads.
+     * @throws IllegalArgumentException if the concurrency level is not positive.
+     */
+    public ConcurrentBag(int concurrencyLevel) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Illegal concurrency level: " + concurrencyLevel);
+        }
+        int n = 1;
+        while (n < concurrencyLevel && n < 1 << 16) {
+            n <<= 1;
+        }
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Creates a bag containing the elements of the specified collection.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public ConcurrentBag(Collection<? extends E> c) {
+        this();
+        addAll(c);
+    }
+
+    /**
+     * Returns the stripe the current thread adds to.
+     */
+    private Stripe stripe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the sum of the stripe counts; an estimate while other threads are adding or removing.
+     */
+    @Override
+    public int size() {
+        long sum = 0;
+        for (Stripe s : stripes) {
+            sum += s.size;
+        }
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Stripe s : stripes) {
+            if (s.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the specified element to the current thread's stripe.
+     * @return true (as specified by Collection.add).
+     */
+    @Override
+    public boolean add(E e) {
+        Stripe s = stripe();
+        synchronized (s) {
+            s.append(e);
+        }
+        return true;
+    }
+
+    /**
+     * Adds all the elements of the specified collection to the current thread's stripe, under a single lock.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        if (a.length == 0) {
+            return false;
+        }
+        Stripe s = stripe();
+        synchronized (s) {
+            s.ensureCapacity(s.size + a.length);
+            System.arraycopy(a, 0, s.elements, s.size, a.length);
+            s.size += a.length;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                if (s.indexOf(o) >= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a single instance of the specified element, searching the current thread's stripe first.
+     */
+    @Override
+    public boolean remove(Object o) {
+        Stripe own = stripe();
+        synchronized (own) {
+            int i = own.indexOf(o);
+            if (i >= 0) {
+                own.removeAt(i);
+                return true;
+            }
+        }
+        for (Stripe s : stripes) {
+            if (s == own) {
+                continue;
+            }
+            synchronized (s) {
+                int i = s.indexOf(o);
+                if (i >= 0) {
+                    s.removeAt(i);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all the elements that satisfy the given predicate, compacting one stripe at a time.
+     * @throws NullPointerException if the specified filter is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                final Object[] es = s.elements;
+                final int end = s.size;
+                int r = 0, w = 0;
+                try {
+                    for (; r < end; r++) {
+                        Object e = es[r];
+                        if (!filter.test((E) e)) {
+                            es[w++] = e;
+                        }
+                    }
+                } finally {
+                    // if the filter threw, keep the elements it has not seen yet
+                    if (r != end) {
+                        System.arraycopy(es, r, es, w, end - r);
+                        w += end - r;
+                    }
+                    if (w != end) {
+                        removed = true;
+                        Arrays.fill(es, w, end, null);
+                        s.size = w;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(Membership.of(c, size()));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(Membership.of(c, size()).negate());
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                Arrays.fill(s.elements, 0, s.size, null);
+                s.size = 0;
+            }
+        }
+    }
+
+    /**
+     * Removes every element from this bag, passing each to the given action.
+     * Each stripe is emptied under its lock and its elements are passed to the action after the lock is released,
+     * so the action may add to this bag. Elements added to a stripe after it has been drained are left in the bag.
+     * @param action the action that receives the removed elements.
+     * @return the number of elements removed.
+     * @throws NullPointerException if the specified action is null.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int count = 0;
+        for (Stripe s : stripes) {
+            Object[] es;
+            int n;
+            synchronized (s) {
+                n = s.size;
+                if (n == 0) {
+                    continue;
+                }
+                es = s.elements;
+                s.elements = new Object[STRIPE_CAPACITY];
+                s.size = 0;
+            }
+            for (int i = 0; i < n; i++) {
+                action.accept((E) es[i]);
+            }
+            count += n;
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        for (Stripe s : stripes) {
+            for (Object e : s.snapshot()) {
+                action.accept((E) e);
+            }
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] r = new Object[0];
+        int n = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                if (r.length - n < s.size) {
+                    r = Arrays.copyOf(r, Math.max(n + s.size, size()));
+                }
+                System.arraycopy(s.elements, 0, r, n, s.size);
+                n += s.size;
+            }
+        }
+        return n == r.length ? r : Arrays.copyOf(r, n);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] es = toArray();
+        int n = es.length;
+        if (a.length < n) {
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), n);
+        }
+        System.arraycopy(es, 0, a, 0, n);
+        if (a.length > n) {
+            a[n] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the elements of this bag.
+     * The spliterator reports CONCURRENT and is weakly consistent, like the iterator.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.CONCURRENT);
+    }
+
+    private final class Itr implements Iterator<E> {
+
+        /**
+         * Index of the next stripe to copy.
+         */
+        int nextStripe;
+
+        /**
+         * Copy of the current stripe, the stripe it came from, and the position in it.
+         */
+        Object[] current = new Object[0];
+        Stripe currentStripe;
+        int cursor;
+
+        /**
+         * The last element returned and the stripe it came from, for remove.
+         */
+        Object lastRet;
+        Stripe lastStripe;
+
+        @Override
+        public boolean hasNext() {
+            while (cursor >= current.length) {
+                if (nextStripe >= stripes.length) {
+                    return false;
+                }
+                currentStripe = stripes[nextStripe++];
+                current = currentStripe.snapshot();
+                cursor = 0;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastStripe = currentStripe;
+            return (E) (lastRet = current[cursor++]);
+        }
+
+        /**
+         * Removes the last element returned from the stripe it was read from,
+         * unless another thread has removed it in the meantime.
+         */
+        @Override
+        public void remove() {
+            if (lastStripe == null) {
+                throw new IllegalStateException();
+            }
+            Stripe s = lastStripe;
+            synchronized (s) {
+                for (int i = 0; i < s.size; i++) {
+                    if (s.elements[i] == lastRet) {
+                        s.removeAt(i);
+                        break;
+                    }
+                }
+            }
+            lastStripe = null;
+            lastRet = null;
+        }
+    }
+
+    /**
+     * One stripe: a growable array guarded by the stripe's own monitor.
+     * The padding keeps the counts of neighbouring stripes off the same cache line.
+     */
+    private static final class Stripe {
+
+        long p0, p1, p2, p3, p4, p5, p6;
+
+        Object[] elements = new Object[STRIPE_CAPACITY];
+
+        /**
+         * Written under the lock, read without it by size().
+         */
+        volatile int size;
+
+        long q0, q1, q2, q3, q4, q5, q6;
+
+        void append(Object e) {
+            int n = size;
+            if (n == elements.length) {
+                ensureCapacity(n + 1);
+            }
+            elements[n] = e;
+            size = n + 1;
+        }
+
+        void ensureCapacity(int minCapacity) {
+            if (minCapacity < 0) { // overflow
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            int oldCapacity = elements.length;
+            if (minCapacity <= oldCapacity) {
+                return;
+            }
+            int newCapacity = oldCapacity + (oldCapacity >> 1);
+            // overflow-conscious code
+            if (newCapacity - minCapacity < 0) {
+                newCapacity = minCapacity;
+            }
+            if (newCapacity - MAX_ARRAY_SIZE > 0) {
+                newCapacity = minCapacity > MAX_ARRAY_SIZE ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+            }
+            elements = Arrays.copyOf(elements, newCapacity);
+        }
+
+        int indexOf(Object o) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(o, elements[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Removes the element at i by moving the last element into its place; order does not matter in a bag.
+         */
+        void removeAt(int i) {
+            int last = size - 1;
+            elements[i] = elements[last];
+            elements[last] = null;
+            size = last;
+        }
+
+        synchronized Object[] snapshot() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+}
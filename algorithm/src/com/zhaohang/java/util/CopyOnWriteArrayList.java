@@ -0,0 +1,971 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe variant of ArrayList in which all mutative operations (add, set, and so on)
+ * are implemented by making a fresh copy of the underlying array.
+ *
+ * This is ordinarily too costly, but may be more efficient than alternatives when traversal operations vastly outnumber mutations,
+ * and is useful when you cannot or don't want to synchronize traversals, yet need to preclude interference among concurrent threads.
+ * Reads take no lock: get, size, contains, indexOf and iteration read a volatile reference to an array that is never changed once published.
+ * The iterators and spliterators work on a snapshot of the array taken when they were created,
+ * never throw ConcurrentModificationException, and do not support the mutating operations.
+ *
+ * Writers copy the array under a lock, so each single write costs O(n).
+ * To apply many writes for the price of one copy, use mutate(Consumer),
+ * which hands a private ArrayList copy to the caller and publishes the result atomically.
+ *
+ * Permits all elements, including null.
+ * Memory consistency effects: actions in a thread prior to placing an object into a CopyOnWriteArrayList
+ * happen-before actions subsequent to the access or removal of that element from the CopyOnWriteArrayList in another thread.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements held in this list.
+ */
+public class CopyOnWriteArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * The lock protecting all mutators.
+     */
+    final transient Object lock = new Object();
+
+    /**
+     * The array, accessed only via getArray/setArray.
+     */
+    private transient volatile Object[] array;
+
+    final Object[] getArray() {
+        return array;
+    }
+
+    final void setArray(Object[] a) {
+        array = a;
+    }
+
+    /**
+     * Creates an empty list.
+     */
+    public CopyOnWriteArrayList() {
+        setArray(new Object[0]);
+    }
+
+    /**
+     * Creates a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public CopyOnWriteArrayList(Collection<? extends E> c) {
+        setArray(Arrays.copyOf(c.toArray(), c.size(), Object[].class));
+    }
+
+    @Override
+    public int size() {
+        return getArray().length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> E elementAt(Object[] a, int index) {
+        return (E) a[index];
+    }
+
+    private static String outOfBounds(int index, int size) {
+        return "Index: " + index + ", Size: " + size;
+    }
+
+    /**
+     * Returns the element at the specified position in this list. Takes no lock.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E get(int index) {
+        Object[] es = getArray();
+        if (index < 0 || index >= es.length) {
+            throw new IndexOutOfBoundsException(outOfBounds(index, es.length));
+        }
+        return elementAt(es, index);
+    }
+
+    private static int indexOfRange(Object o, Object[] es, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Objects.equals(o, es[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Object[] es = getArray();
+        return indexOfRange(o, es, 0, es.length);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        Object[] es = getArray();
+        for (int i = es.length - 1; i >= 0; i--) {
+            if (Objects.equals(o, es[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return getArray().clone();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] es = getArray();
+        int len = es.length;
+        if (a.length < len) {
+            return (T[]) Arrays.copyOf(es, len, a.getClass());
+        }
+        System.arraycopy(es, 0, a, 0, len);
+        if (a.length > len) {
+            a[len] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the specified element.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E set(int index, E element) {
+        synchronized (lock) {
+            Object[] es = getArray();
+            if (index < 0 || index >= es.length) {
+                throw new IndexOutOfBoundsException(outOfBounds(index, es.length));
+            }
+            E oldValue = elementAt(es, index);
+            if (oldValue != element) {
+                es = es.clone();
+                es[index] = element;
+            }
+            // Ensure volatile write semantics even when oldvalue == element
+            setArray(es);
+            return oldValue;
+        }
+    }
+
+    @Override
+    public boolean add(E e) {
+        synchronized (lock) {
+            Object[] es = getArray();
+            int len = es.length;
+            es = Arrays.copyOf(es, len + 1);
+            es[len] = e;
+            setArray(es);
+            return true;
+        }
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public void add(int index, E element) {
+        synchronized (lock) {
+            Object[] es = getArray();
+            int len = es.length;
+            if (index > len || index < 0) {
+                throw new IndexOutOfBoundsException(outOfBounds(index, len));
+            }
+            Object[] newElements = new Object[len + 1];
+            System.arraycopy(es, 0, newElements, 0, index);
+            System.arraycopy(es, index, newElements, index + 1, len - index);
+            newElements[index] = element;
+            setArray(newElements);
+        }
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    public E remove(int index) {
+        synchronized (lock) {
+            Object[] es = getArray();
+            int len = es.length;
+            if (index < 0 || index >= len) {
+                throw new IndexOutOfBoundsException(outOfBounds(index, len));
+            }
+            E oldValue = elementAt(es, index);
+            Object[] newElements = new Object[len - 1];
+            System.arraycopy(es, 0, newElements, 0, index);
+            System.arraycopy(es, index + 1, newElements, index, len - index - 1);
+            setArray(newElements);
+            return oldValue;
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        synchronized (lock) {
+            int index = indexOf(o);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+    }
+
+    /**
+     * Appends the element, if not present.
+     * @param e element to be added to this list, if absent.
+     * @return true if the element was added.
+     */
+    public boolean addIfAbsent(E e) {
+        synchronized (lock) {
+            if (indexOf(e) >= 0) {
+                return false;
+            }
+            return add(e);
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] cs = c.toArray();
+        if (cs.length == 0) {
+            return false;
+        }
+        synchronized (lock) {
+            Object[] es = getArray();
+            int len = es.length;
+            Object[] newElements = Arrays.copyOf(es, len + cs.length);
+            System.arraycopy(cs, 0, newElements, len, cs.length);
+            setArray(newElements);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        Object[] cs = c.toArray();
+        synchronized (lock) {
+            Object[] es = getArray();
+            int len = es.length;
+            if (index > len || index < 0) {
+                throw new IndexOutOfBoundsException(outOfBounds(index, len));
+            }
+            if (cs.length == 0) {
+                return false;
+            }
+            Object[] newElements = new Object[len + cs.length];
+            System.arraycopy(es, 0, newElements, 0, index);
+            System.arraycopy(cs, 0, newElements, index, cs.length);
+            System.arraycopy(es, index, newElements, index + cs.length, len - index);
+            setArray(newElements);
+            return true;
+        }
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        synchronized (lock) {
+            Object[] es = getArray();
+            int len = es.length;
+            if (fromIndex < 0 || toIndex > len || toIndex < fromIndex) {
+                throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + len);
+            }
+            Object[] newElements = new Object[len - (toIndex - fromIndex)];
+            System.arraycopy(es, 0, newElements, 0, fromIndex);
+            System.arraycopy(es, toIndex, newElements, fromIndex, len - toIndex);
+            setArray(newElements);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            setArray(new Object[0]);
+        }
+    }
+
+    /**
+     * Removes the elements in the given range that satisfy the predicate with a single copy of the array,
+     * under the lock. The new array is published only after every element has been tested,
+     * so the list is unchanged if the predicate throws.
+     */
+    @Override
+    protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+        Objects.requireNonNull(filter);
+        synchronized (lock) {
+            final Object[] es = getArray();
+            final int len = es.length;
+            if (fromIndex < 0 || toIndex > len || toIndex < fromIndex) {
+                throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + len);
+            }
+            Object[] newElements = new Object[len];
+            System.arraycopy(es, 0, newElements, 0, fromIndex);
+            int w = fromIndex;
+            for (int i = fromIndex; i < toIndex; i++) {
+                E e = elementAt(es, i);
+                if (!filter.test(e)) {
+                    newElements[w++] = e;
+                }
+            }
+            if (w == toIndex) {
+                return false;
+            }
+            System.arraycopy(es, toIndex, newElements, w, len - toIndex);
+            setArray(Arrays.copyOf(newElements, w + len - toIndex));
+            return true;
+        }
+    }
+
+    /**
+     * Removes all the elements of this list that satisfy the given predicate, with a single copy of the array.
+     * The bound is read from the array inside the lock, so concurrent additions and removals
+     * either happen entirely before or entirely after the removal.
+     * @throws NullPointerException if the specified filter is null.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        synchronized (lock) {
+            return bulkRemove(filter, 0, getArray().length);
+        }
+    }
+
+    /**
+     * Removes from this list all of its elements that are contained in the specified collection,
+     * atomically with respect to other writers; see removeIf.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(Membership.of(c, size()));
+    }
+
+    /**
+     * Retains only the elements in this list that are contained in the specified collection,
+     * atomically with respect to other writers; see removeIf.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(Membership.of(c, size()).negate());
+    }
+
+    /**
+     * Replaces each element of this list with the result of applying the operator to it.
+     * The operator is applied to a copy of the array under the lock, and the copy is published when every element has been replaced,
+     * so readers see either all of the old elements or all of the new ones; if the operator throws, this list is unchanged.
+     * @throws NullPointerException if the specified operator is null.
+     */
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        synchronized (lock) {
+            Object[] es = getArray().clone();
+            for (int i = 0; i < es.length; i++) {
+                es[i] = operator.apply(elementAt(es, i));
+            }
+            setArray(es);
+        }
+    }
+
+    /**
+     * Sorts a copy of the array under the lock and publishes it, so readers never see a partly sorted list.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        synchronized (lock) {
+            E[] es = (E[]) getArray().clone();
+            Arrays.sort(es, c);
+            setArray(es);
+        }
+    }
+
+    /**
+     * Applies a batch of changes with a single copy of the array.
+     * The action receives a private, mutable ArrayList holding the current elements and may change it freely;
+     * when it returns, the contents of that list replace the contents of this one atomically.
+     * Other writers wait for the batch to finish; readers keep seeing the previous contents until it is published.
+     * If the action throws an exception, nothing is published and this list is unchanged.
+     * The action must not keep a reference to the list it receives.
+     * @param action the changes to apply.
+     * @throws NullPointerException if the specified action is null.
+     */
+    public void mutate(Consumer<? super List<E>> action) {
+        Objects.requireNonNull(action);
+        synchronized (lock) {
+            ArrayList<E> working = new ArrayList<>(this);
+            action.accept(working);
+            setArray(working.toArray());
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this list, taken when the iterator is created.
+     * The iterator does not support the remove method.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new COWIterator<>(getArray(), 0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator() {
+        return new COWIterator<>(getArray(), 0);
+    }
+
+    /**
+     * Returns a list iterator over a snapshot of the elements in this list, starting at the specified position.
+     * The iterator does not support the remove, set or add methods.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        Object[] es = getArray();
+        if (index < 0 || index > es.length) {
+            throw new IndexOutOfBoundsException(outOfBounds(index, es.length));
+        }
+        return new COWIterator<>(es, index);
+    }
+
+    /**
+     * Returns a Spliterator over a snapshot of the elements in this list.
+     * The spliterator reports IMMUTABLE, ORDERED, SIZED and SUBSIZED.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return java.util.Spliterators.spliterator(getArray(), Spliterator.IMMUTABLE | Spliterator.ORDERED);
+    }
+
+    /**
+     * Performs the given action for each element of a snapshot of this list, in order, without locking.
+     * @throws NullPointerException if the specified action is null.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        for (Object x : getArray()) {
+            @SuppressWarnings("unchecked") E e = (E) x;
+            action.accept(e);
+        }
+    }
+
+    /**
+     * Returns a view of the portion of this list between fromIndex, inclusive, and toIndex, exclusive.
+     * The view remembers the array of this list it was created from. Every change made through the view
+     * is applied to this list under the lock and updates the remembered array;
+     * if this list is changed in any other way, every later operation on the view throws a ConcurrentModificationException.
+     * The iterators of the view work on a snapshot, like the iterators of this list.
+     * @throws IndexOutOfBoundsException if fromIndex < 0 or toIndex > size().
+     * @throws IllegalArgumentException if fromIndex > toIndex.
+     */
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+        synchronized (lock) {
+            Object[] es = getArray();
+            subListRangeCheck(fromIndex, toIndex, es.length);
+            return new COWSubList(null, es, fromIndex, toIndex - fromIndex);
+        }
+    }
+
+    /**
+     * A view of a range of this list. Comodification is detected by comparing the array of this list
+     * with the one the view last saw, since writers replace the array instead of counting modifications.
+     * Nested views keep the offset into this list, so every operation goes straight to it,
+     * and walk up the parent chain only to record the new array and size after a change.
+     */
+    private class COWSubList extends AbstractList<E> implements RandomAccess {
+
+        private final COWSubList parent;
+
+        /**
+         * Index in this list of the first element of the view.
+         */
+        private final int offset;
+
+        private int size;
+
+        /**
+         * The array of this list as of the creation of the view or the last change made through it.
+         */
+        private Object[] expectedArray;
+
+        COWSubList(COWSubList parent, Object[] es, int offset, int size) {
+            this.parent = parent;
+            this.expectedArray = es;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        private void checkForComodification() {
+            if (getArray() != expectedArray) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void rangeCheck(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(outOfBounds(index, size));
+            }
+        }
+
+        private void rangeCheckForAdd(int index) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException(outOfBounds(index, size));
+            }
+        }
+
+        /**
+         * Records the array published by a change made through the view, and the change in size,
+         * in the view and every view it was created from.
+         */
+        private void updateArray(int sizeDelta) {
+            Object[] es = getArray();
+            for (COWSubList s = this; s != null; s = s.parent) {
+                s.expectedArray = es;
+                s.size += sizeDelta;
+            }
+        }
+
+        @Override
+        public int size() {
+            synchronized (lock) {
+                checkForComodification();
+                return size;
+            }
+        }
+
+        @Override
+        public E get(int index) {
+            synchronized (lock) {
+                rangeCheck(index);
+                checkForComodification();
+                return elementAt(expectedArray, offset + index);
+            }
+        }
+
+        @Override
+        public E set(int index, E element) {
+            synchronized (lock) {
+                rangeCheck(index);
+                checkForComodification();
+                E oldValue = CopyOnWriteArrayList.this.set(offset + index, element);
+                updateArray(0);
+                return oldValue;
+            }
+        }
+
+        @Override
+        public boolean add(E e) {
+            synchronized (lock) {
+                checkForComodification();
+                CopyOnWriteArrayList.this.add(offset + size, e);
+                updateArray(1);
+                return true;
+            }
+        }
+
+        @Override
+        public void add(int index, E element) {
+            synchronized (lock) {
+                checkForComodification();
+                rangeCheckForAdd(index);
+                CopyOnWriteArrayList.this.add(offset + index, element);
+                updateArray(1);
+            }
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            synchronized (lock) {
+                return addAll(size, c);
+            }
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> c) {
+            synchronized (lock) {
+                checkForComodification();
+                rangeCheckForAdd(index);
+                int oldLength = expectedArray.length;
+                boolean modified = CopyOnWriteArrayList.this.addAll(offset + index, c);
+                updateArray(getArray().length - oldLength);
+                return modified;
+            }
+        }
+
+        @Override
+        public E remove(int index) {
+            synchronized (lock) {
+                rangeCheck(index);
+                checkForComodification();
+                E oldValue = CopyOnWriteArrayList.this.remove(offset + index);
+                updateArray(-1);
+                return oldValue;
+            }
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            synchronized (lock) {
+                checkForComodification();
+                int index = indexOfRange(o, expectedArray, offset, offset + size);
+                if (index < 0) {
+                    return false;
+                }
+                CopyOnWriteArrayList.this.remove(index);
+                updateArray(-1);
+                return true;
+            }
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            synchronized (lock) {
+                checkForComodification();
+                if (fromIndex < 0 || toIndex > size || toIndex < fromIndex) {
+                    throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+                }
+                CopyOnWriteArrayList.this.removeRange(offset + fromIndex, offset + toIndex);
+                updateArray(fromIndex - toIndex);
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (lock) {
+                removeRange(0, size);
+            }
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            Objects.requireNonNull(filter);
+            synchronized (lock) {
+                return bulkRemove(filter, 0, size);
+            }
+        }
+
+        /**
+         * Forwards to the bulkRemove of this list over the corresponding range.
+         */
+        @Override
+        protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+            synchronized (lock) {
+                checkForComodification();
+                int oldLength = expectedArray.length;
+                boolean modified = CopyOnWriteArrayList.this.bulkRemove(filter, offset + fromIndex, offset + toIndex);
+                if (modified) {
+                    updateArray(getArray().length - oldLength);
+                }
+                return modified;
+            }
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<E> operator) {
+            Objects.requireNonNull(operator);
+            synchronized (lock) {
+                checkForComodification();
+                Object[] es = expectedArray.clone();
+                for (int i = offset; i < offset + size; i++) {
+                    es[i] = operator.apply(elementAt(es, i));
+                }
+                setArray(es);
+                updateArray(0);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void sort(Comparator<? super E> c) {
+            synchronized (lock) {
+                checkForComodification();
+                E[] es = (E[]) expectedArray.clone();
+                Arrays.sort(es, offset, offset + size, c);
+                setArray(es);
+                updateArray(0);
+            }
+        }
+
+        /**
+         * Performs the given action for each element of a snapshot of the view, without holding the lock.
+         */
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            Object[] es;
+            int n;
+            synchronized (lock) {
+                checkForComodification();
+                es = expectedArray;
+                n = size;
+            }
+            for (int i = offset; i < offset + n; i++) {
+                action.accept(elementAt(es, i));
+            }
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<E> listIterator() {
+            return listIterator(0);
+        }
+
+        @Override
+        public ListIterator<E> listIterator(int index) {
+            synchronized (lock) {
+                checkForComodification();
+                rangeCheckForAdd(index);
+                return new COWSubListIterator<>(new COWIterator<>(expectedArray, offset + index), offset, size);
+            }
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            synchronized (lock) {
+                checkForComodification();
+                return java.util.Spliterators.spliterator(expectedArray, offset, offset + size,
+                        Spliterator.IMMUTABLE | Spliterator.ORDERED);
+            }
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            synchronized (lock) {
+                checkForComodification();
+                subListRangeCheck(fromIndex, toIndex, size);
+                return new COWSubList(this, expectedArray, offset + fromIndex, toIndex - fromIndex);
+            }
+        }
+    }
+
+    /**
+     * An iterator over a snapshot of a range of the array, with indices relative to the start of the range.
+     */
+    private static final class COWSubListIterator<E> implements ListIterator<E>, com.zhaohang.java.util.Iterator<E> {
+
+        private final COWIterator<E> it;
+
+        private final int offset;
+
+        private final int size;
+
+        COWSubListIterator(COWIterator<E> it, int offset, int size) {
+            this.it = it;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex() < size;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return it.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return previousIndex() >= 0;
+        }
+
+        @Override
+        public E previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            return it.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return it.nextIndex() - offset;
+        }
+
+        @Override
+        public int previousIndex() {
+            return it.previousIndex() - offset;
+        }
+
+        /**
+         * Not supported. Always throws UnsupportedOperationException.
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Not supported. Always throws UnsupportedOperationException.
+         */
+        @Override
+        public void set(E e) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Not supported. Always throws UnsupportedOperationException.
+         */
+        @Override
+        public void add(E e) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(it.next());
+            }
+        }
+
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            return it.nextBatch(dst, off, Math.min(max, size - nextIndex()));
+        }
+    }
+
+    static final class COWIterator<E> implements ListIterator<E>, com.zhaohang.java.util.Iterator<E> {
+
+        /**
+         * Snapshot of the array
+         */
+        private final Object[] snapshot;
+
+        /**
+         * Index of element to be returned by subsequent call to next.
+         */
+        private int cursor;
+
+        COWIterator(Object[] es, int initialCursor) {
+            cursor = initialCursor;
+            snapshot = es;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < snapshot.length;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (E) snapshot[cursor++];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            return (E) snapshot[--cursor];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        /**
+         * Not supported. Always throws UnsupportedOperationException.
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Not supported. Always throws UnsupportedOperationException.
+         */
+        @Override
+        public void set(E e) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Not supported. Always throws UnsupportedOperationException.
+         */
+        @Override
+        public void add(E e) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            final int size = snapshot.length;
+            int i = cursor;
+            cursor = size;
+            for (; i < size; i++) {
+                action.accept((E) snapshot[i]);
+            }
+        }
+
+        /**
+         * Copies the next batch out of the snapshot with a single array copy; no locking or checks are needed.
+         */
+        @Override
+        public int nextBatch(Object[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            int n = Math.min(max, snapshot.length - cursor);
+            if (n <= 0) {
+                return 0;
+            }
+            System.arraycopy(snapshot, cursor, dst, off, n);
+            cursor += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.zhaohang.java.util;
+
+/**
+ * A linear collection that supports element insertion and removal at both ends.
+ * The name deque is short for "double ended queue" and is usually pronounced "deck".
+ * Most Deque implementations place no fixed limits on the number of elements they may contain,
+ * but this interface supports capacity-restricted deques as well as those with no fixed size limit.
+ *
+ * This interface defines methods to access the elements at both ends of the deque.
+ * Methods are provided to insert, remove, and examine the element.
+ * Each of these methods exists in two forms: one throws an exception if the operation fails,
+ * the other returns a special value (either null or false, depending on the operation).
+ *
+ *                  First Element (Head)            Last Element (Tail)
+ *                  Throws exception  Special value Throws exception  Special value
+ *      Insert      addFirst(e)       offerFirst(e) addLast(e)        offerLast(e)
+ *      Remove      removeFirst()     pollFirst()   removeLast()      pollLast()
+ *      Examine     getFirst()        peekFirst()   getLast()         peekLast()
+ *
+ * When a deque is used as a queue, FIFO (First-In-First-Out) behavior results:
+ * elements are added at the end of the deque and removed from the beginning (add, offer, remove, poll, element, peek).
+ * Deques can also be used as LIFO (Last-In-First-Out) stacks (push, pop, peek),
+ * in which case elements are pushed and popped from the beginning of the deque.
+ *
+ * While Deque implementations are not strictly required to prohibit the insertion of null elements,
+ * they are strongly encouraged to do so, because null is used as a special return value by various methods
+ * to indicate that the deque is empty.
+ *
+ * This interface is a member of Java Collection Framework.
+ * @param <E> the type of elements held in this deque.
+ */
+public interface Deque<E> extends Collection<E> {
+
+    /**
+     * Inserts the specified element at the front of this deque if it is possible to do so immediately
+     * without violating capacity restrictions, throwing an IllegalStateException if no space is currently available.
+     * @throws IllegalStateException if the element cannot be added at this time due to capacity restrictions.
+     * @throws NullPointerException if the specified element is null and this deque does not permit null elements.
+     */
+    void addFirst(E e);
+
+    /**
+     * Inserts the specified element at the end of this deque if it is possible to do so immediately
+     * without violating capacity restrictions, throwing an IllegalStateException if no space is currently available.
+     * @throws IllegalStateException if the element cannot be added at this time due to capacity restrictions.
+     * @throws NullPointerException if the specified element is null and this deque does not permit null elements.
+     */
+    void addLast(E e);
+
+    /**
+     * Inserts the specified element at the front of this deque unless it would violate capacity restrictions.
+     * @return true if the element was added to this deque, else false.
+     * @throws NullPointerException if the specified element is null and this deque does not permit null elements.
+     */
+    boolean offerFirst(E e);
+
+    /**
+     * Inserts the specified element at the end of this deque unless it would violate capacity restrictions.
+     * @return true if the element was added to this deque, else false.
+     * @throws NullPointerException if the specified element is null and this deque does not permit null elements.
+     */
+    boolean offerLast(E e);
+
+    /**
+     * Retrieves and removes the first element of this deque.
+     * This method differs from pollFirst only in that it throws an exception if this deque is empty.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E removeFirst();
+
+    /**
+     * Retrieves and removes the last element of this deque.
+     * This method differs from pollLast only in that it throws an exception if this deque is empty.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E removeLast();
+
+    /**
+     * Retrieves and removes the first element of this deque, or returns null if this deque is empty.
+     */
+    E pollFirst();
+
+    /**
+     * Retrieves and removes the last element of this deque, or returns null if this deque is empty.
+     */
+    E pollLast();
+
+    /**
+     * Retrieves, but does not remove, the first element of this deque.
+     * This method differs from peekFirst only in that it throws an exception if this deque is empty.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E getFirst();
+
+    /**
+     * Retrieves, but does not remove, the last element of this deque.
+     * This method differs from peekLast only in that it throws an exception if this deque is empty.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E getLast();
+
+    /**
+     * Retrieves, but does not remove, the first element of this deque, or returns null if this deque is empty.
+     */
+    E peekFirst();
+
+    /**
+     * Retrieves, but does not remove, the last element of this deque, or returns null if this deque is empty.
+     */
+    E peekLast();
+
+    /**
+     * Removes the first occurrence of the specified element from this deque.
+     * If the deque does not contain the element, it is unchanged.
+     * @return true if an element was removed as a result of this call.
+     */
+    boolean removeFirstOccurrence(Object o);
+
+    /**
+     * Removes the last occurrence of the specified element from this deque.
+     * If the deque does not contain the element, it is unchanged.
+     * @return true if an element was removed as a result of this call.
+     */
+    boolean removeLastOccurrence(Object o);
+
+    // *** Queue methods ***
+
+    /**
+     * Inserts the specified element at the tail of this deque. This method is equivalent to addLast.
+     * @return true (as specified by Collection.add).
+     */
+    @Override
+    boolean add(E e);
+
+    /**
+     * Inserts the specified element at the tail of this deque. This method is equivalent to offerLast.
+     * @return true if the element was added to this deque, else false.
+     */
+    boolean offer(E e);
+
+    /**
+     * Retrieves and removes the head of this deque. This method is equivalent to removeFirst.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E remove();
+
+    /**
+     * Retrieves and removes the head of this deque, or returns null if this deque is empty.
+     * This method is equivalent to pollFirst.
+     */
+    E poll();
+
+    /**
+     * Retrieves, but does not remove, the head of this deque. This method is equivalent to getFirst.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E element();
+
+    /**
+     * Retrieves, but does not remove, the head of this deque, or returns null if this deque is empty.
+     * This method is equivalent to peekFirst.
+     */
+    E peek();
+
+    // *** Stack methods ***
+
+    /**
+     * Pushes an element onto the stack represented by this deque. This method is equivalent to addFirst.
+     */
+    void push(E e);
+
+    /**
+     * Pops an element from the stack represented by this deque. This method is equivalent to removeFirst.
+     * @throws java.util.NoSuchElementException if this deque is empty.
+     */
+    E pop();
+
+    // *** Collection methods ***
+
+    /**
+     * Removes the first occurrence of the specified element from this deque.
+     * This method is equivalent to removeFirstOccurrence.
+     */
+    @Override
+    boolean remove(Object o);
+
+    /**
+     * Returns an iterator over the elements in this deque in proper sequence,
+     * from first (head) to last (tail).
+     */
+    @Override
+    Iterator<E> iterator();
+
+    /**
+     * Returns an iterator over the elements in this deque in reverse sequential order,
+     * from last (tail) to first (head).
+     */
+    Iterator<E> descendingIterator();
+}
@@ -0,0 +1,50 @@
+package com.zhaohang.java.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory behind direct and mapped byte buffers without waiting for the garbage collector.
+ * The JDK offers no public API for this, so this class goes through sun.misc.Unsafe.invokeCleaner
+ * when it is available; otherwise freeing falls back to the buffer's cleaner running after it becomes unreachable.
+ */
+final class DirectBuffers {
+
+    private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+
+    private DirectBuffers() {}
+
+    private static MethodHandle lookupInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Frees the memory of the specified direct buffer immediately, if the running VM allows it.
+     * The buffer, and every view or duplicate of it, must not be accessed afterwards.
+     * @param buffer a direct buffer that is not a slice or duplicate of another buffer; null is ignored.
+     */
+    static void free(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.zhaohang.java.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements of type E to and from a fixed number of bytes,
+ * so that lists can keep them in a ByteBuffer (outside the Java heap, or in a mapped file) instead of as objects.
+ *
+ * Every element occupies exactly byteSize() bytes.
+ * encode must write no more than that many bytes starting at the given offset,
+ * and decode must read back an element equal to the one that was encoded.
+ * Codecs for user-defined records typically write each field in turn with the absolute put methods of ByteBuffer.
+ * @param <E> the type of elements handled by this codec.
+ */
+public interface ElementCodec<E> {
+
+    /**
+     * Returns the number of bytes one encoded element occupies.
+     * @return the width in bytes of an encoded element, always positive.
+     */
+    int byteSize();
+
+    /**
+     * Writes the specified element into the buffer at the specified absolute byte offset.
+     * The position and limit of the buffer are not used and must not be changed.
+     * @param buffer the buffer to write to.
+     * @param offset the absolute byte offset of the first byte to write.
+     * @param element the element to encode.
+     * @throws NullPointerException if the element is null and this codec does not permit null elements.
+     */
+    void encode(ByteBuffer buffer, int offset, E element);
+
+    /**
+     * Reads an element from the buffer at the specified absolute byte offset.
+     * The position and limit of the buffer are not used and must not be changed.
+     * @param buffer the buffer to read from.
+     * @param offset the absolute byte offset of the first byte to read.
+     * @return the decoded element.
+     */
+    E decode(ByteBuffer buffer, int offset);
+
+    /**
+     * Codec for Integer elements, four bytes each. Null elements are not permitted.
+     */
+    ElementCodec<Integer> INT = new ElementCodec<Integer>() {
+        public int byteSize() {
+            return Integer.BYTES;
+        }
+
+        public void encode(ByteBuffer buffer, int offset, Integer element) {
+            buffer.putInt(offset, element);
+        }
+
+        public Integer decode(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * Codec for Long elements, eight bytes each. Null elements are not permitted.
+     */
+    ElementCodec<Long> LONG = new ElementCodec<Long>() {
+        public int byteSize() {
+            return Long.BYTES;
+        }
+
+        public void encode(ByteBuffer buffer, int offset, Long element) {
+            buffer.putLong(offset, element);
+        }
+
+        public Long decode(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * Codec for Double elements, eight bytes each. Null elements are not permitted.
+     */
+    ElementCodec<Double> DOUBLE = new ElementCodec<Double>() {
+        public int byteSize() {
+            return Double.BYTES;
+        }
+
+        public void encode(ByteBuffer buffer, int offset, Double element) {
+            buffer.putDouble(offset, element);
+        }
+
+        public Double decode(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+}
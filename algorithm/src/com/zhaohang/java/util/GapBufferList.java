@@ -0,0 +1,417 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Gap buffer implementation of the List interface, for workloads that insert and remove near a moving cursor.
+ * The elements are kept in one array with a movable gap of free slots at the position of the last edit.
+ * Inserting or removing at the gap costs constant time;
+ * an edit elsewhere first moves the gap there, which costs time proportional to the distance it moves.
+ * A run of edits at or near the same position therefore costs O(1) amortized per edit,
+ * where an array-backed list would shift the whole tail every time.
+ *
+ * The get and set operations run in constant time, as in an ArrayList.
+ * The list iterator inherited from AbstractList adds and removes through add(int, E) and remove(int),
+ * so editing through ListIterator.add and ListIterator.remove works directly on the gap.
+ *
+ * Permits all elements, including null.
+ * Note that this implementation is not synchronized.
+ * The iterators returned by this class's iterator and listIterator methods are fail-fast.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements in this list.
+ */
+public class GapBufferList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in OutOfMemoryError:
+     * Requested array size exceeds VM limit.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The buffer: elements [0, gapStart) and [gapEnd, buffer.length), with the free slots in between.
+     */
+    private Object[] buffer;
+
+    /**
+     * Index of the first free slot, which is also the list index the gap sits at.
+     */
+    private int gapStart;
+
+    /**
+     * Index of the first slot after the gap.
+     */
+    private int gapEnd;
+
+    /**
+     * Constructs an empty list with an initial capacity of sixteen.
+     */
+    public GapBufferList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the list.
+     * @throws IllegalArgumentException if the specified initial capacity is negative.
+     */
+    public GapBufferList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+        this.buffer = new Object[initialCapacity];
+        this.gapStart = 0;
+        this.gapEnd = initialCapacity;
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator, with the gap at the end.
+     * @param c the collection whose elements are to be placed into this list.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public GapBufferList(Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        this.buffer = Arrays.copyOf(a, Math.max(a.length + (a.length >> 1), DEFAULT_CAPACITY), Object[].class);
+        this.gapStart = a.length;
+        this.gapEnd = buffer.length;
+    }
+
+    private int gapLength() {
+        return gapEnd - gapStart;
+    }
+
+    /**
+     * Maps a list index to its slot in the buffer.
+     */
+    private int slot(int index) {
+        return index < gapStart ? index : index + gapLength();
+    }
+
+    /**
+     * Moves the gap so that it starts at the specified list index,
+     * shifting only the elements between the old and the new position.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int n = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - n, n);
+            // clear the slots now inside the gap to let GC do its work
+            Arrays.fill(buffer, index, Math.min(gapStart, gapEnd - n), null);
+            gapStart = index;
+            gapEnd -= n;
+        } else if (index > gapStart) {
+            int n = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, n);
+            Arrays.fill(buffer, Math.max(gapEnd, index), gapEnd + n, null);
+            gapStart = index;
+            gapEnd += n;
+        }
+    }
+
+    /**
+     * Makes the gap at least minGap slots long, keeping it at the same list index.
+     */
+    private void ensureGap(int minGap) {
+        int gap = gapLength();
+        if (gap >= minGap) {
+            return;
+        }
+        int size = size();
+        int minCapacity = size + minGap;
+        if (minCapacity < 0) { // overflow
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        int oldCapacity = buffer.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        // overflow-conscious code
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        }
+        if (newCapacity - MAX_ARRAY_SIZE > 0) {
+            newCapacity = minCapacity > MAX_ARRAY_SIZE ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+        }
+        Object[] newBuffer = new Object[newCapacity];
+        int tail = oldCapacity - gapEnd;
+        System.arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, newBuffer, newCapacity - tail, tail);
+        buffer = newBuffer;
+        gapEnd = newCapacity - tail;
+    }
+
+    @Override
+    public int size() {
+        return buffer.length - gapLength();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        rangeCheck(index);
+        return (E) buffer[slot(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        rangeCheck(index);
+        int slot = slot(index);
+        E oldValue = (E) buffer[slot];
+        buffer[slot] = element;
+        return oldValue;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list.
+     * The gap is moved to the index first, so consecutive inserts at the same cursor cost constant time.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public void add(int index, E element) {
+        rangeCheckForAdd(index);
+        modCount++;
+        ensureGap(1);
+        moveGap(index);
+        buffer[gapStart++] = element;
+    }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * Removing the element just before the gap (a backspace) or just after it (a delete) costs constant time;
+     * otherwise the gap is moved to the index first.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        rangeCheck(index);
+        modCount++;
+        E oldValue;
+        if (index + 1 == gapStart) {
+            oldValue = (E) buffer[--gapStart];
+            buffer[gapStart] = null;
+        } else {
+            moveGap(index);
+            oldValue = (E) buffer[gapEnd];
+            buffer[gapEnd++] = null;
+        }
+        return oldValue;
+    }
+
+    /**
+     * Inserts all the elements in the specified collection into this list, starting at the specified position.
+     * The gap is moved to the index once and the new elements are copied into it.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        rangeCheckForAdd(index);
+        Object[] a = c.toArray();
+        modCount++;
+        if (a.length == 0) {
+            return false;
+        }
+        ensureGap(a.length);
+        moveGap(index);
+        System.arraycopy(a, 0, buffer, gapStart, a.length);
+        gapStart += a.length;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * Removes the elements between fromIndex, inclusive, and toIndex, exclusive,
+     * by moving the gap to fromIndex and widening it over the range.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size());
+        }
+        modCount++;
+        moveGap(fromIndex);
+        int n = toIndex - fromIndex;
+        Arrays.fill(buffer, gapEnd, gapEnd + n, null);
+        gapEnd += n;
+    }
+
+    /**
+     * Removes the elements in the given range that satisfy the predicate.
+     * The victims are marked in a bitset in a first pass over the buffer, so the list is unchanged if the predicate throws;
+     * then the gap is moved to the end of the range and the survivors are moved down in a single pass,
+     * leaving the removed slots in the gap.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+        Objects.requireNonNull(filter);
+        final int expectedModCount = modCount;
+        int i = fromIndex;
+        // optimize for initial run of survivors
+        while (i < toIndex && !filter.test((E) buffer[slot(i)])) {
+            i++;
+        }
+        if (i < toIndex) {
+            final int beg = i;
+            final long[] deathRow = nBits(toIndex - beg);
+            deathRow[0] = 1L; // set bit 0
+            for (i = beg + 1; i < toIndex; i++) {
+                if (filter.test((E) buffer[slot(i)])) {
+                    setBit(deathRow, i - beg);
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            modCount++;
+            moveGap(toIndex);
+            final Object[] es = buffer;
+            int w = beg;
+            for (i = beg; i < toIndex; i++) {
+                if (isClear(deathRow, i - beg)) {
+                    es[w++] = es[i];
+                }
+            }
+            // the slots [w, toIndex) join the gap
+            Arrays.fill(es, w, toIndex, null);
+            gapStart = w;
+            return true;
+        } else {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Sorts this list according to the order induced by the specified comparator
+     * (the natural ordering if it is null).
+     * The gap is moved to the end first, so the elements form one run at the start of the buffer,
+     * which is then sorted in place with Arrays.sort.
+     * @throws ConcurrentModificationException if the comparator modified this list.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        final int expectedModCount = modCount;
+        moveGap(size());
+        Arrays.sort((E[]) buffer, 0, gapStart, c);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(buffer, null);
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(o, buffer[slot(i)])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (Objects.equals(o, buffer[slot(i)])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns an array containing all the elements in this list in proper sequence,
+     * copied from the two sides of the gap.
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] r = new Object[size()];
+        System.arraycopy(buffer, 0, r, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, r, gapStart, buffer.length - gapEnd);
+        return r;
+    }
+
+    /**
+     * Copies a range of elements with at most two array copies, one on each side of the gap.
+     */
+    @Override
+    protected void copyTo(int fromIndex, Object[] dst, int dstOffset, int length) {
+        int before = Math.max(0, Math.min(length, gapStart - fromIndex));
+        System.arraycopy(buffer, fromIndex, dst, dstOffset, before);
+        System.arraycopy(buffer, fromIndex + before + gapLength(), dst, dstOffset + before, length - before);
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order,
+     * looping over the two sides of the gap without creating an iterator.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final Object[] es = buffer;
+        final int gs = gapStart, ge = gapEnd;
+        for (int i = 0; modCount == expectedModCount && i < gs; i++) {
+            action.accept((E) es[i]);
+        }
+        for (int i = ge; modCount == expectedModCount && i < es.length; i++) {
+            action.accept((E) es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size();
+    }
+}
@@ -0,0 +1,301 @@
+package com.zhaohang.java.util;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An ArrayList that also keeps a hash index from each distinct value to the positions where it occurs,
+ * so that indexOf, lastIndexOf and contains run in expected constant time instead of scanning the list.
+ * It suits lists that are both ordered and frequently queried by value,
+ * and replaces a HashMap kept beside the list by hand.
+ *
+ * The index is kept up to date incrementally by the operations that do not move other elements:
+ * add(E) and addAll(Collection) at the end, set, and removing the last element,
+ * each at the cost of one or two hash lookups.
+ * The operations that shift elements (add and remove in the middle, addAll at an index, removeRange,
+ * removeIf and the other bulk removals) change the positions of every element after them,
+ * so instead of patching the index they drop it; it is rebuilt in one O(n) pass on the next lookup.
+ * A batch of shifting edits followed by lookups therefore costs a single rebuild.
+ *
+ * Lookups use hashCode and equals, so the elements must not be changed in a way that affects them
+ * while they are in the list. The index takes memory proportional to the size of the list.
+ *
+ * Permits all elements, including null.
+ * Note that this implementation is not synchronized.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements in this list
+ */
+public class HashIndexedList<E> extends ArrayList<E> {
+
+    /**
+     * Maps each value to its positions in ascending order, or null when the index must be rebuilt.
+     */
+    private transient Map<Object, IntList> index;
+
+    /**
+     * Constructs an empty list with an initial capacity of ten.
+     */
+    public HashIndexedList() {
+        super();
+        index = new HashMap<>();
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the list.
+     * @throws IllegalArgumentException if the specified initial capacity is negative.
+     */
+    public HashIndexedList(int initialCapacity) {
+        super(initialCapacity);
+        index = new HashMap<>();
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * The index is built on the first lookup.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public HashIndexedList(Collection<? extends E> c) {
+        super(c);
+    }
+
+    /**
+     * Returns the index, rebuilding it first if a shifting operation has dropped it.
+     */
+    private Map<Object, IntList> index() {
+        Map<Object, IntList> idx = index;
+        if (idx == null) {
+            int size = size();
+            idx = new HashMap<>(Math.max((int) (size / .75f) + 1, 16));
+            for (int i = 0; i < size; i++) {
+                idx.computeIfAbsent(elementData(i), k -> new IntList(1)).addInt(i);
+            }
+            index = idx;
+        }
+        return idx;
+    }
+
+    /**
+     * Drops the index after an operation that shifted elements.
+     */
+    private void invalidate() {
+        index = null;
+    }
+
+    /**
+     * Records that the specified value now occurs at position i, if the index is live.
+     */
+    private void indexAdd(Object value, int i) {
+        if (index != null) {
+            IntList positions = index.computeIfAbsent(value, k -> new IntList(1));
+            int n = positions.size();
+            if (n == 0 || positions.getInt(n - 1) < i) {
+                positions.addInt(i);
+            } else {
+                positions.addInt(-(binarySearch(positions, i) + 1), i);
+            }
+        }
+    }
+
+    /**
+     * Records that the specified value no longer occurs at position i, if the index is live.
+     */
+    private void indexRemove(Object value, int i) {
+        if (index != null) {
+            IntList positions = index.get(value);
+            int n = positions.size();
+            if (positions.getInt(n - 1) == i) {
+                positions.removeInt(n - 1);
+            } else {
+                positions.removeInt(binarySearch(positions, i));
+            }
+            if (positions.isEmpty()) {
+                index.remove(value);
+            }
+        }
+    }
+
+    private static int binarySearch(IntList positions, int key) {
+        int low = 0;
+        int high = positions.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midVal = positions.getInt(mid);
+            if (midVal < key) {
+                low = mid + 1;
+            } else if (midVal > key) {
+                high = mid - 1;
+            } else {
+                return mid; // key found
+            }
+        }
+        return -(low + 1);  // key not found.
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element, or -1, in expected constant time.
+     */
+    @Override
+    public int indexOf(Object o) {
+        IntList positions = index().get(o);
+        return positions == null ? -1 : positions.getInt(0);
+    }
+
+    /**
+     * Returns the index of the last occurrence of the specified element, or -1, in expected constant time.
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        IntList positions = index().get(o);
+        return positions == null ? -1 : positions.getInt(positions.size() - 1);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return index().containsKey(o);
+    }
+
+    /**
+     * Returns true if this list contains all the elements of the specified collection,
+     * with one hash lookup per element.
+     */
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        Map<Object, IntList> idx = index();
+        for (Object e : c) {
+            if (!idx.containsKey(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of occurrences of the specified element in this list, in expected constant time.
+     */
+    public int count(Object o) {
+        IntList positions = index().get(o);
+        return positions == null ? 0 : positions.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E oldValue = super.set(index, element);
+        if (oldValue != element) {
+            indexRemove(oldValue, index);
+            indexAdd(element, index);
+        }
+        return oldValue;
+    }
+
+    @Override
+    public boolean add(E e) {
+        super.add(e);
+        indexAdd(e, size() - 1);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        super.add(index, element);
+        if (index == size() - 1) {
+            indexAdd(element, index);
+        } else {
+            invalidate();
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        E oldValue = super.remove(index);
+        if (index == size()) {
+            indexRemove(oldValue, index);
+        } else {
+            invalidate();
+        }
+        return oldValue;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i < 0) {
+            return false;
+        }
+        remove(i);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        index = new HashMap<>();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        int oldSize = size();
+        boolean modified = super.addAll(c);
+        if (index != null) {
+            for (int i = oldSize, n = size(); i < n; i++) {
+                indexAdd(elementData(i), i);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        int oldSize = size();
+        boolean modified = super.addAll(index, c);
+        if (modified && index != oldSize) {
+            invalidate();
+        } else if (this.index != null) {
+            for (int i = oldSize, n = size(); i < n; i++) {
+                indexAdd(elementData(i), i);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+        if (fromIndex != toIndex) {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected boolean bulkRemove(Predicate<? super E> filter, int fromIndex, int toIndex) {
+        boolean modified = super.bulkRemove(filter, fromIndex, toIndex);
+        if (modified) {
+            invalidate();
+        }
+        return modified;
+    }
+
+    /**
+     * Drops the index and sorts the backing array in place; the index is rebuilt on the next lookup.
+     * The index is dropped first because a comparator that throws may leave the array partly sorted.
+     */
+    @Override
+    public void sort(Comparator<? super E> c) {
+        invalidate();
+        super.sort(c);
+    }
+
+    /**
+     * Drops the index and sorts the backing array in parallel; the index is rebuilt on the next lookup.
+     */
+    @Override
+    public void parallelSort(Comparator<? super E> c) {
+        invalidate();
+        super.parallelSort(c);
+    }
+}
@@ -67,4 +67,30 @@ public interface Iterator<E> {
             action.accept((next()));
         }
     }
+
+    /**
+     * Copies up to max of the remaining elements into the specified array, starting at the specified offset,
+     * and advances past them, as if by calling next that many times.
+     * Returns the number of elements copied, which is less than max only if the iteration has ended;
+     * 0 means that there are no more elements (or that max is 0).
+     * After a non-empty batch, remove removes the last element of the batch.
+     *
+     * A caller that consumes many elements makes one call per batch instead of a hasNext and next pair per element.
+     * Implementation Requirements: The default implementation calls hasNext and next for each element.
+     * Iterators over arrays should override it with a bulk copy and a single concurrent modification check per batch.
+     * @param dst the array to copy the elements into.
+     * @param off the index in dst of the first element to copy.
+     * @param max the maximum number of elements to copy.
+     * @return the number of elements copied.
+     * @throws IndexOutOfBoundsException if off or max is negative, or off + max is greater than dst.length.
+     * @throws ArrayStoreException if an element cannot be stored in dst.
+     */
+    default int nextBatch(Object[] dst, int off, int max) {
+        Objects.checkFromIndexSize(off, max, dst.length);
+        int n = 0;
+        while (n < max && hasNext()) {
+            dst[off + n++] = next();
+        }
+        return n;
+    }
 }
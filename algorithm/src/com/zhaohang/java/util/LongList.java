@@ -0,0 +1,608 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Resizable-array implementation of the List interface for long values, backed by a long[].
+ * Elements are stored unboxed, so a LongList takes a fraction of the memory of an ArrayList of Long
+ * and scans over it touch one contiguous array instead of chasing a pointer per element.
+ *
+ * The primitive methods (getLong, setLong, addLong, removeLong, indexOfLong, lastIndexOfLong, containsLong
+ * and longIterator) never box.
+ * The methods inherited from the List interface bridge to them by boxing and unboxing Long values,
+ * so a LongList can be passed to any caller that expects a List&lt;Long&gt;.
+ * Null elements are not permitted; adding or setting null throws a NullPointerException.
+ * Note that this implementation is not synchronized.
+ * The iterators returned by this class's iterator, listIterator and longIterator methods are fail-fast.
+ *
+ * This class is a member of Java Collection Framework.
+ */
+public class LongList extends AbstractList<Long> implements RandomAccess {
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Shared empty array instance used for empty instances.
+     */
+    private static final long[] EMPTY_ELEMENTDATA = {};
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in OutOfMemoryError:
+     * Requested array size exceeds VM limit.
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The array buffer into which the elements of the LongList are stored.
+     * The capacity of the LongList is the length of this array buffer.
+     */
+    transient long[] elementData;
+
+    /**
+     * The size of the LongList (the number of elements it contains).
+     */
+    private int size;
+
+    /**
+     * Constructs an empty list with an initial capacity of ten.
+     */
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the list.
+     * @throws IllegalArgumentException if the specified initial capacity is negative.
+     */
+    public LongList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+        this.elementData = initialCapacity == 0 ? EMPTY_ELEMENTDATA : new long[initialCapacity];
+    }
+
+    /**
+     * Constructs a list containing a copy of the specified values, in order.
+     * @param values the values to be placed into this list.
+     * @throws NullPointerException if the specified array is null.
+     */
+    public LongList(long[] values) {
+        this.elementData = values.length == 0 ? EMPTY_ELEMENTDATA : values.clone();
+        this.size = values.length;
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @param c the collection whose elements are to be placed into this list.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    public LongList(Collection<? extends Long> c) {
+        this(0);
+        addAll(c);
+    }
+
+    /**
+     * Trims the capacity of this LongList instance to be the list's current size.
+     */
+    public void trimToSize() {
+        modCount++;
+        if (size < elementData.length) {
+            elementData = size == 0 ? EMPTY_ELEMENTDATA : Arrays.copyOf(elementData, size);
+        }
+    }
+
+    /**
+     * Increases the capacity of this LongList instance, if necessary,
+     * to ensure that it can hold at least the number of elements specified by the minimum capacity argument.
+     * @param minCapacity the desired minimum capacity.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elementData.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) { // overflow
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        // overflow-conscious code
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        }
+        if (newCapacity - MAX_ARRAY_SIZE > 0) {
+            newCapacity = minCapacity > MAX_ARRAY_SIZE ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+        }
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element at the specified position in this list, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    public long getLong(int index) {
+        rangeCheck(index);
+        return elementData[index];
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the specified value, without boxing.
+     * @return the value previously at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    public long setLong(int index, long element) {
+        rangeCheck(index);
+        long oldValue = elementData[index];
+        elementData[index] = element;
+        return oldValue;
+    }
+
+    @Override
+    public Long set(int index, Long element) {
+        return setLong(index, element);
+    }
+
+    /**
+     * Appends the specified value to the end of this list, without boxing.
+     * @return true (as specified by Collection.add)
+     */
+    public boolean addLong(long e) {
+        modCount++;
+        if (size == elementData.length) {
+            grow(size + 1);
+        }
+        elementData[size++] = e;
+        return true;
+    }
+
+    @Override
+    public boolean add(Long e) {
+        return addLong(e);
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list, without boxing.
+     * Shifts the element currently at that position (if any) and any subsequent elements to the right.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    public void addLong(int index, long element) {
+        rangeCheckForAdd(index);
+        modCount++;
+        if (size == elementData.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elementData, index, elementData, index + 1, size - index);
+        elementData[index] = element;
+        size++;
+    }
+
+    @Override
+    public void add(int index, Long element) {
+        addLong(index, element);
+    }
+
+    /**
+     * Removes the element at the specified position in this list, without boxing.
+     * Shifts any subsequent elements to the left (subtracts one from their indices).
+     * @return the value that was removed from the list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    public long removeLong(int index) {
+        rangeCheck(index);
+        modCount++;
+        long oldValue = elementData[index];
+        int numMoved = size - index - 1;
+        if (numMoved > 0) {
+            System.arraycopy(elementData, index + 1, elementData, index, numMoved);
+        }
+        size--;
+        return oldValue;
+    }
+
+    @Override
+    public Long remove(int index) {
+        return removeLong(index);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        removeLong(index);
+        return true;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value in this list,
+     * or -1 if this list does not contain the value.
+     */
+    public int indexOfLong(long value) {
+        long[] es = elementData;
+        for (int i = 0; i < size; i++) {
+            if (es[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of the specified value in this list,
+     * or -1 if this list does not contain the value.
+     */
+    public int lastIndexOfLong(long value) {
+        long[] es = elementData;
+        for (int i = size - 1; i >= 0; i--) {
+            if (es[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if this list contains the specified value.
+     */
+    public boolean containsLong(long value) {
+        return indexOfLong(value) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return o instanceof Long ? indexOfLong((Long) o) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return o instanceof Long ? lastIndexOfLong((Long) o) : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns a long array containing all the elements in this list in proper sequence.
+     * The returned array is a fresh copy that the caller is free to modify.
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(elementData, size);
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] r = new Object[size];
+        for (int i = 0; i < size; i++) {
+            r[i] = elementData[i];
+        }
+        return r;
+    }
+
+    /**
+     * Removes all the elements from this list.
+     * No per-element work is needed, since the backing array holds no references.
+     */
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    /**
+     * Appends all the elements in the specified collection to the end of this list.
+     * If the collection is another LongList, its backing array is copied without boxing.
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    @Override
+    public boolean addAll(Collection<? extends Long> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * Inserts all the elements in the specified collection into this list, starting at the specified position.
+     * The tail of the list is shifted once by the number of inserted elements.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws NullPointerException if the specified collection is null or contains a null element.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends Long> c) {
+        rangeCheckForAdd(index);
+        long[] a;
+        if (c instanceof LongList) {
+            a = ((LongList) c).toLongArray();
+        } else {
+            Object[] boxed = c.toArray();
+            a = new long[boxed.length];
+            for (int i = 0; i < boxed.length; i++) {
+                a[i] = (Long) boxed[i];
+            }
+        }
+        modCount++;
+        int numNew = a.length;
+        if (numNew == 0) {
+            return false;
+        }
+        if (numNew > elementData.length - size) {
+            grow(size + numNew);
+        }
+        int numMoved = size - index;
+        if (numMoved > 0) {
+            System.arraycopy(elementData, index, elementData, index + numNew, numMoved);
+        }
+        System.arraycopy(a, 0, elementData, index, numNew);
+        size += numNew;
+        return true;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+        }
+        modCount++;
+        System.arraycopy(elementData, toIndex, elementData, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    /**
+     * Removes all the elements of this list that satisfy the given predicate, without boxing.
+     * The victims are marked in a bitset in one pass and the survivors are moved down in a second pass,
+     * so the removal takes linear time; the list is unchanged if the predicate throws.
+     * @return true if any elements were removed.
+     * @throws NullPointerException if the specified filter is null.
+     * @throws ConcurrentModificationException if this list was structurally modified while the predicate was being tested.
+     */
+    public boolean removeIfLong(LongPredicate filter) {
+        Objects.requireNonNull(filter);
+        return removeIfLong(filter, 0, size);
+    }
+
+    /**
+     * Bridges removeIf, removeAll and retainAll to the unboxed removal.
+     * If the filter is also a LongPredicate, the elements are tested without boxing.
+     */
+    @Override
+    protected boolean bulkRemove(Predicate<? super Long> filter, int fromIndex, int toIndex) {
+        Objects.requireNonNull(filter);
+        if (filter instanceof LongPredicate) {
+            return removeIfLong((LongPredicate) filter, fromIndex, toIndex);
+        }
+        return removeIfLong(filter::test, fromIndex, toIndex);
+    }
+
+    private boolean removeIfLong(LongPredicate filter, int fromIndex, int toIndex) {
+        final int expectedModCount = modCount;
+        final long[] es = elementData;
+        int i = fromIndex;
+        // optimize for initial run of survivors
+        while (i < toIndex && !filter.test(es[i])) {
+            i++;
+        }
+        if (i < toIndex) {
+            final int beg = i;
+            final long[] deathRow = nBits(toIndex - beg);
+            deathRow[0] = 1L; // set bit 0
+            for (i = beg + 1; i < toIndex; i++) {
+                if (filter.test(es[i])) {
+                    setBit(deathRow, i - beg);
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            modCount++;
+            int w = beg;
+            for (i = beg; i < toIndex; i++) {
+                if (isClear(deathRow, i - beg)) {
+                    es[w++] = es[i];
+                }
+            }
+            // shift the tail over the gap left by the removed elements
+            System.arraycopy(es, toIndex, es, w, size - toIndex);
+            size -= toIndex - w;
+            return true;
+        } else {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Sorts this list according to the order induced by the specified comparator.
+     * If the comparator is null or the natural ordering, the backing long[] is sorted in place without boxing,
+     * with a radix sort (see RadixSort);
+     * otherwise the elements are boxed, sorted with the comparator and written back.
+     * @throws ConcurrentModificationException if the comparator modified this list.
+     */
+    @Override
+    public void sort(Comparator<? super Long> c) {
+        final int expectedModCount = modCount;
+        if (c == null || c == Comparator.<Long>naturalOrder()) {
+            RadixSort.sort(elementData, 0, size);
+        } else {
+            Long[] a = new Long[size];
+            for (int i = 0; i < size; i++) {
+                a[i] = elementData[i];
+            }
+            Arrays.sort(a, c);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            for (int i = 0; i < size; i++) {
+                elementData[i] = a[i];
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Sorts this list into ascending numerical order in place, using several threads.
+     * Above a size threshold, Arrays.parallelSort splits the backing array into pieces
+     * that are sorted and merged by fork/join tasks in the common pool; below it, it sorts sequentially.
+     */
+    public void parallelSort() {
+        Arrays.parallelSort(elementData, 0, size);
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the elements in this list that hands out unboxed values through nextLong.
+     */
+    public PrimitiveIterator.OfLong longIterator() {
+        return new LongItr();
+    }
+
+    private class LongItr implements PrimitiveIterator.OfLong {
+
+        /**
+         * index of the element to be returned by subsequent call to next.
+         */
+        int cursor;
+
+        /**
+         * Index of element returned by most recent call to next.
+         * Reset to -1 if this element is deleted by a call to remove.
+         */
+        int lastRet = -1;
+
+        int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor != size;
+        }
+
+        @Override
+        public long nextLong() {
+            checkForModification();
+            int i = cursor;
+            if (i >= size) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return elementData[lastRet = i];
+        }
+
+        /**
+         * Copies the next batch straight out of the backing array with a single array copy.
+         */
+        @Override
+        public int nextBatch(long[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            checkForModification();
+            int n = Math.min(max, size - cursor);
+            if (n <= 0) {
+                return 0;
+            }
+            System.arraycopy(elementData, cursor, dst, off, n);
+            cursor += n;
+            lastRet = cursor - 1;
+            return n;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            LongList.this.removeLong(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        final void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order, without boxing.
+     * The loop runs directly over the backing array, allocates no iterator,
+     * and checks modCount once at the end.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    public void forEachLong(LongConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final long[] es = elementData;
+        final int size = this.size;
+        for (int i = 0; modCount == expectedModCount && i < size; i++) {
+            action.accept(es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order.
+     * If the action is also a LongConsumer, the elements are passed without boxing.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    @Override
+    public void forEach(Consumer<? super Long> action) {
+        Objects.requireNonNull(action);
+        if (action instanceof LongConsumer) {
+            forEachLong((LongConsumer) action);
+        } else {
+            forEachLong(action::accept);
+        }
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+}
@@ -0,0 +1,233 @@
+package com.zhaohang.java.util;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An object that maps keys to values. A map cannot contain duplicate keys; each key can map to at most one value.
+ *
+ * The Map interface provides three collection views, which allow a map's contents to be viewed as a set of keys,
+ * collection of values, or set of key-value mappings.
+ * The order of a map is defined as the order in which the iterators on the map's collection views return their elements.
+ * Some map implementations make specific guarantees as to their order; others do not.
+ *
+ * Great care must be exercised if mutable objects are used as map keys.
+ * The behavior of a map is not specified if the value of an object is changed in a manner that affects equals comparisons
+ * while the object is a key in the map.
+ *
+ * This interface is a member of Java Collection Framework.
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public interface Map<K, V> {
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     * If the map contains more than Integer.MAX_VALUE elements, returns Integer.MAX_VALUE.
+     */
+    int size();
+
+    /**
+     * Returns true if this map contains no key-value mappings.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     * More formally, returns true if and only if this map contains a mapping for a key k such that (key == null ? k == null : key.equals(k)).
+     * @throws NullPointerException if the specified key is null and this map does not permit null keys (optional).
+     */
+    boolean containsKey(Object key);
+
+    /**
+     * Returns true if this map maps one or more keys to the specified value.
+     * This operation will probably require time linear in the map size for most implementations of the Map interface.
+     */
+    boolean containsValue(Object value);
+
+    /**
+     * Returns the value to which the specified key is mapped, or null if this map contains no mapping for the key.
+     * If this map permits null values, then a return value of null does not necessarily indicate that the map contains no mapping for the key;
+     * it's also possible that the map explicitly maps the key to null. The containsKey operation may be used to distinguish these two cases.
+     * @throws NullPointerException if the specified key is null and this map does not permit null keys (optional).
+     */
+    V get(Object key);
+
+    /**
+     * Associates the specified value with the specified key in this map (optional operation).
+     * If the map previously contained a mapping for the key, the old value is replaced by the specified value.
+     * @return the previous value associated with key, or null if there was no mapping for key.
+     * @throws UnsupportedOperationException if the put operation is not supported by this map.
+     * @throws NullPointerException if the specified key or value is null and this map does not permit null keys or values.
+     */
+    V put(K key, V value);
+
+    /**
+     * Removes the mapping for a key from this map if it is present (optional operation).
+     * @return the previous value associated with key, or null if there was no mapping for key.
+     * @throws UnsupportedOperationException if the remove operation is not supported by this map.
+     */
+    V remove(Object key);
+
+    /**
+     * Copies all the mappings from the specified map to this map (optional operation).
+     * The effect of this call is equivalent to that of calling put(k, v) on this map once
+     * for each mapping from key k to value v in the specified map.
+     * @throws NullPointerException if the specified map is null.
+     */
+    void putAll(Map<? extends K, ? extends V> m);
+
+    /**
+     * Removes all the mappings from this map (optional operation). The map will be empty after this call returns.
+     */
+    void clear();
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set, and vice-versa.
+     * The set supports element removal, which removes the corresponding mapping from the map,
+     * but not the add or addAll operations.
+     */
+    Set<K> keySet();
+
+    /**
+     * Returns a Collection view of the values contained in this map.
+     * The collection is backed by the map, so changes to the map are reflected in the collection, and vice-versa.
+     * The collection supports element removal, but not the add or addAll operations.
+     */
+    Collection<V> values();
+
+    /**
+     * Returns a Set view of the mappings contained in this map.
+     * The set is backed by the map, so changes to the map are reflected in the set, and vice-versa.
+     * The set supports element removal, but not the add or addAll operations.
+     */
+    Set<Map.Entry<K, V>> entrySet();
+
+    /**
+     * A map entry (key-value pair). The only way to obtain a reference to a map entry is from the iterator of a collection view.
+     * These Map.Entry objects are valid only for the duration of the iteration.
+     * @param <K> the type of the key.
+     * @param <V> the type of the value.
+     */
+    interface Entry<K, V> {
+
+        /**
+         * Returns the key corresponding to this entry.
+         */
+        K getKey();
+
+        /**
+         * Returns the value corresponding to this entry.
+         */
+        V getValue();
+
+        /**
+         * Replaces the value corresponding to this entry with the specified value, writing through to the map (optional operation).
+         * @return old value corresponding to the entry.
+         */
+        V setValue(V value);
+
+        /**
+         * Compares the specified object with this entry for equality.
+         * Returns true if the given object is also a map entry and the two entries represent the same mapping.
+         */
+        @Override
+        boolean equals(Object o);
+
+        /**
+         * Returns the hash code value for this map entry, defined as the exclusive or of the hash codes of its key and value,
+         * where the hash code of null is zero.
+         */
+        @Override
+        int hashCode();
+    }
+
+    /**
+     * Compares the specified object with this map for equality.
+     * Returns true if the given object is also a map and the two maps represent the same mappings.
+     */
+    @Override
+    boolean equals(Object o);
+
+    /**
+     * Returns the hash code value for this map, defined to be the sum of the hash codes of each entry in the map's entrySet() view.
+     */
+    @Override
+    int hashCode();
+
+    // Defaultable methods
+
+    /**
+     * Returns the value to which the specified key is mapped, or defaultValue if this map contains no mapping for the key.
+     */
+    default V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (((v = get(key)) != null) || containsKey(key)) ? v : defaultValue;
+    }
+
+    /**
+     * Performs the given action for each entry in this map until all entries have been processed or the action throws an exception.
+     * @throws NullPointerException if the specified action is null.
+     */
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        Iterator<Map.Entry<K, V>> it = entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, V> entry = it.next();
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is mapped to null),
+     * associates it with the given value and returns null, else returns the current value.
+     */
+    default V putIfAbsent(K key, V value) {
+        V v = get(key);
+        if (v == null) {
+            v = put(key, value);
+        }
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is mapped to null),
+     * attempts to compute its value using the given mapping function and enters it into this map unless null.
+     * @return the current (existing or computed) value associated with the specified key, or null if the computed value is null.
+     * @throws NullPointerException if the mapping function is null.
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V v;
+        if ((v = get(key)) == null) {
+            V newValue;
+            if ((newValue = mappingFunction.apply(key)) != null) {
+                put(key, newValue);
+                return newValue;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value or is associated with null, associates it with the given non-null value.
+     * Otherwise, replaces the associated value with the results of the given remapping function, or removes if the result is null.
+     * @return the new value associated with the specified key, or null if no value is associated with the key.
+     * @throws NullPointerException if the specified value or remapping function is null.
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        V oldValue = get(key);
+        V newValue = (oldValue == null) ? value : remappingFunction.apply(oldValue, value);
+        if (newValue == null) {
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+}
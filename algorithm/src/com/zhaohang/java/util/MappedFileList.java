@@ -0,0 +1,404 @@
+package com.zhaohang.java.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A List implementation whose elements live in a memory-mapped file.
+ * Every element is converted to a fixed number of bytes by an ElementCodec,
+ * and get(int) and set(int, E) decode and encode one element directly in the mapping,
+ * so the operating system's page cache does all the I/O.
+ *
+ * The file starts with a small header recording the element width, the chunk size and the list size,
+ * followed by the elements in index order.
+ * The data region is mapped in equally sized chunks; when the list outgrows the mapped chunks,
+ * the file is extended and one more chunk is mapped, without touching the existing ones.
+ * Opening an existing file maps it again and gives back the same list immediately, without deserialization.
+ *
+ * Changes reach the file when the operating system writes the dirty pages back.
+ * Call force() to write them to the storage device before relying on them surviving a crash.
+ * close() unmaps the file and closes it; it does not force the changes.
+ * After the list is closed, every operation that needs the elements throws an IllegalStateException.
+ *
+ * Note that this implementation is not synchronized, and the file must not be opened by two lists at the same time.
+ * The iterators returned by this class's iterator and listIterator methods are fail-fast.
+ * @param <E> the type of elements in this list.
+ */
+public class MappedFileList<E> extends AbstractList<E> implements RandomAccess, Closeable {
+
+    /**
+     * Identifies files written by this class.
+     */
+    private static final int MAGIC = 0x4D46_4C31;
+
+    /**
+     * Header layout: magic, element width, log2 of the chunk capacity, list size; four ints.
+     */
+    private static final int HEADER_BYTES = 16;
+
+    private static final int WIDTH_OFFSET = 4;
+
+    private static final int SHIFT_OFFSET = 8;
+
+    private static final int SIZE_OFFSET = 12;
+
+    /**
+     * Default number of elements per mapped chunk.
+     */
+    private static final int DEFAULT_CHUNK_CAPACITY = 1 << 16;
+
+    private final ElementCodec<E> codec;
+
+    private final int width;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer header;
+
+    /**
+     * The mapped chunks of the data region; null once this list has been closed.
+     * Only the first chunkCount entries are mapped.
+     */
+    private MappedByteBuffer[] chunks;
+
+    private int chunkCount;
+
+    private int size;
+
+    /**
+     * A heap buffer of one element's width. set and add(int, E) encode into it first,
+     * so a codec that rejects an element throws before any bytes of the file are changed.
+     */
+    private final ByteBuffer scratch;
+
+    /**
+     * Opens the list stored in the specified file, or creates an empty one if the file does not exist or is empty.
+     * @param file the file backing the list.
+     * @param codec the codec used to convert elements to and from bytes; it must match the one the file was written with.
+     * @throws IOException if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if the file is not empty and was not written by this class or was written with a codec of a different width.
+     */
+    public MappedFileList(Path file, ElementCodec<E> codec) throws IOException {
+        this(file, codec, DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Opens the list stored in the specified file, or creates an empty one with the specified chunk size.
+     * The chunk size of an existing file is read from its header and the argument is ignored.
+     * @param file the file backing the list.
+     * @param codec the codec used to convert elements to and from bytes; it must match the one the file was written with.
+     * @param chunkCapacity the number of elements per mapped chunk for a new file; rounded up to a power of two.
+     * @throws IOException if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if the file is not empty and was not written by this class
+     *                                  or was written with a codec of a different width,
+     *                                  or if chunkCapacity is not positive or a chunk would exceed the capacity of a byte buffer.
+     */
+    public MappedFileList(Path file, ElementCodec<E> codec, int chunkCapacity) throws IOException {
+        this.codec = Objects.requireNonNull(codec);
+        this.width = codec.byteSize();
+        if (width <= 0) {
+            throw new IllegalArgumentException("Illegal element width: " + width);
+        }
+        this.scratch = ByteBuffer.allocate(width);
+        FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            // Validate an existing header, or the arguments for a new one, before mapping anything:
+            // mapping the header extends a short file, and a failed open must leave the file as it was.
+            long length = ch.size();
+            int shift;
+            if (length == 0) {
+                shift = chunkShiftFor(chunkCapacity);
+            } else {
+                ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES);
+                while (h.hasRemaining() && ch.read(h, h.position()) > 0) {
+                }
+                if (h.hasRemaining() || h.getInt(0) != MAGIC) {
+                    throw new IllegalArgumentException("Not a list file: " + file);
+                }
+                if (h.getInt(WIDTH_OFFSET) != width) {
+                    throw new IllegalArgumentException("Element width " + h.getInt(WIDTH_OFFSET)
+                            + " in " + file + " does not match codec width " + width);
+                }
+                shift = h.getInt(SHIFT_OFFSET);
+                this.size = h.getInt(SIZE_OFFSET);
+                if (shift < 0 || shift > 30 || ((long) width << shift) > Integer.MAX_VALUE || size < 0) {
+                    throw new IllegalArgumentException("Corrupt header in " + file);
+                }
+            }
+            this.header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (length == 0) {
+                header.putInt(0, MAGIC);
+                header.putInt(WIDTH_OFFSET, width);
+                header.putInt(SHIFT_OFFSET, shift);
+                header.putInt(SIZE_OFFSET, 0);
+            }
+            this.chunkShift = shift;
+            this.chunkMask = (1 << shift) - 1;
+            this.channel = ch;
+            this.chunks = new MappedByteBuffer[4];
+            ensureCapacity(size);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private int chunkShiftFor(int chunkCapacity) {
+        if (chunkCapacity <= 0 || chunkCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Illegal chunk capacity: " + chunkCapacity);
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(chunkCapacity - 1);
+        if (((long) width << shift) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk of " + (1 << shift) + " elements exceeds buffer capacity");
+        }
+        return shift;
+    }
+
+    /**
+     * Writes every change made to this list to the storage device containing the file.
+     * When this method returns, the elements and the size of the list survive a system crash.
+     * @throws IllegalStateException if this list has been closed.
+     */
+    public void force() {
+        ensureOpen();
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].force();
+        }
+        header.force();
+    }
+
+    /**
+     * Unmaps and closes the file.
+     * Changes that have not been forced are still written back by the operating system eventually,
+     * but are not guaranteed to survive a system crash.
+     * Calling close on a list that is already closed has no effect.
+     * @throws IOException if closing the file fails.
+     */
+    @Override
+    public void close() throws IOException {
+        MappedByteBuffer[] cs = chunks;
+        if (cs == null) {
+            return;
+        }
+        chunks = null;
+        modCount++;
+        for (int i = 0; i < chunkCount; i++) {
+            DirectBuffers.free(cs[i]);
+            cs[i] = null;
+        }
+        DirectBuffers.free(header);
+        chunkCount = 0;
+        channel.close();
+    }
+
+    private void ensureOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("List is closed");
+        }
+    }
+
+    /**
+     * Maps chunks, extending the file as needed, until at least minCapacity elements fit.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) { // overflow
+            throw new OutOfMemoryError("Required list size too large");
+        }
+        try {
+            while (((long) chunkCount << chunkShift) < minCapacity) {
+                if (chunkCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, chunkCount << 1);
+                }
+                long chunkBytes = (long) width << chunkShift;
+                chunks[chunkCount] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_BYTES + chunkCount * chunkBytes, chunkBytes);
+                chunkCount++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ByteBuffer chunk(int index) {
+        return chunks[index >>> chunkShift];
+    }
+
+    private int offset(int index) {
+        return (index & chunkMask) * width;
+    }
+
+    /**
+     * Copies count elements from index from to index to, overlapping or not, like System.arraycopy,
+     * with one bulk put per run that lies within a single mapped chunk on both sides.
+     * Right shifts copy the runs from the last one back.
+     */
+    private void moveElements(int from, int to, int count) {
+        int chunkCapacity = chunkMask + 1;
+        if (to > from) {
+            while (count > 0) {
+                int srcEnd = from + count, dstEnd = to + count;
+                int n = Math.min(count, Math.min(((srcEnd - 1) & chunkMask) + 1, ((dstEnd - 1) & chunkMask) + 1));
+                chunk(dstEnd - n).put(offset(dstEnd - n), chunk(srcEnd - n), offset(srcEnd - n), n * width);
+                count -= n;
+            }
+        } else {
+            while (count > 0) {
+                int n = Math.min(count, Math.min(chunkCapacity - (from & chunkMask), chunkCapacity - (to & chunkMask)));
+                chunk(to).put(offset(to), chunk(from), offset(from), n * width);
+                from += n;
+                to += n;
+                count -= n;
+            }
+        }
+    }
+
+    /**
+     * Copies the element encoded in the scratch buffer to the slot at index.
+     */
+    private void storeScratch(int index) {
+        chunk(index).put(offset(index), scratch, 0, width);
+    }
+
+    /**
+     * Records a new size in the header, so a reopened file sees it.
+     */
+    private void setSize(int newSize) {
+        size = newSize;
+        header.putInt(SIZE_OFFSET, newSize);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the element at the specified position in this list, decoded from the mapped file.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public E get(int index) {
+        ensureOpen();
+        rangeCheck(index);
+        return codec.decode(chunk(index), offset(index));
+    }
+
+    /**
+     * Replaces the element at the specified position in this list by encoding the specified element into the mapped file.
+     * If the codec rejects the element, the exception is thrown before the slot is overwritten.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public E set(int index, E element) {
+        ensureOpen();
+        rangeCheck(index);
+        E oldValue = codec.decode(chunk(index), offset(index));
+        codec.encode(scratch, 0, element);
+        storeScratch(index);
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     * @throws UncheckedIOException if the file cannot be extended.
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public boolean add(E e) {
+        ensureOpen();
+        ensureCapacity(size + 1);
+        codec.encode(chunk(size), offset(size), e);
+        modCount++;
+        setSize(size + 1);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list,
+     * moving the bytes of the subsequent elements one slot to the right.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws UncheckedIOException if the file cannot be extended.
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public void add(int index, E element) {
+        ensureOpen();
+        rangeCheckForAdd(index);
+        ensureCapacity(size + 1);
+        codec.encode(scratch, 0, element);
+        moveElements(index, index + 1, size - index);
+        storeScratch(index);
+        modCount++;
+        setSize(size + 1);
+    }
+
+    /**
+     * Removes the element at the specified position in this list,
+     * moving the bytes of the subsequent elements one slot to the left.
+     * The file is not truncated.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public E remove(int index) {
+        ensureOpen();
+        rangeCheck(index);
+        E oldValue = codec.decode(chunk(index), offset(index));
+        moveElements(index + 1, index, size - index - 1);
+        modCount++;
+        setSize(size - 1);
+        return oldValue;
+    }
+
+    /**
+     * Removes all the elements from this list by resetting the recorded size.
+     * The file keeps its length.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        modCount++;
+        setSize(0);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        ensureOpen();
+        if (fromIndex < 0 || toIndex > size || toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+        }
+        moveElements(toIndex, fromIndex, size - toIndex);
+        modCount++;
+        setSize(size - (toIndex - fromIndex));
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+}
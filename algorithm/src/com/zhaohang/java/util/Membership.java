@@ -0,0 +1,113 @@
+package com.zhaohang.java.util;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Chooses how the bulk operations (removeAll, retainAll, containAll) test membership in their argument collection.
+ * Calling c.contains once per probed element is a linear scan of c each time when c is a list,
+ * which makes diffing two large lists quadratic. Above a size threshold,
+ * the elements of c are copied once into a temporary open-addressing hash set,
+ * so the whole operation runs in O(n + m) time.
+ *
+ * Sets and hash-indexed lists are always asked directly: their contains is already fast,
+ * and for sets it defines membership by their own rules (a comparator, identity), which a hash set of equals would not respect.
+ */
+final class Membership {
+
+    /**
+     * Below this many elements in the argument collection, a linear contains is as fast as hashing.
+     */
+    static final int MIN_SIZE = 16;
+
+    /**
+     * Below this many expected calls to contains, building the hash set does not pay off.
+     */
+    static final int MIN_PROBES = 8;
+
+    /**
+     * Above this many elements, the table of the hash set could not be allocated; fall back to contains.
+     */
+    private static final int MAX_SIZE = 1 << 29;
+
+    private Membership() {}
+
+    /**
+     * Returns a membership test for the elements of the specified collection,
+     * to be called about the specified number of times.
+     * The returned predicate takes a snapshot of c if it hashes; later changes to c are not seen.
+     */
+    static Predicate<Object> of(java.util.Collection<?> c, int probes) {
+        Objects.requireNonNull(c);
+        if (c instanceof java.util.Set || c instanceof HashIndexedList || c.size() < MIN_SIZE || c.size() > MAX_SIZE || probes < MIN_PROBES) {
+            return c::contains;
+        }
+        return new OpenHashSet(c.toArray());
+    }
+
+    /**
+     * Returns a membership test for the elements of the specified collection of this package,
+     * to be called about the specified number of times.
+     */
+    static Predicate<Object> of(Collection<?> c, int probes) {
+        Objects.requireNonNull(c);
+        if (c instanceof Set || c.size() < MIN_SIZE || c.size() > MAX_SIZE || probes < MIN_PROBES) {
+            return c::contains;
+        }
+        return new OpenHashSet(c.toArray());
+    }
+
+    /**
+     * A read-only hash set of a fixed array of elements, using linear probing in a table at most half full.
+     */
+    static final class OpenHashSet implements Predicate<Object> {
+
+        private final Object[] table;
+
+        private final int mask;
+
+        private final boolean containsNull;
+
+        OpenHashSet(Object[] elements) {
+            int capacity = Integer.highestOneBit(Math.max(elements.length, 1) * 2 - 1) << 1;
+            table = new Object[capacity];
+            mask = capacity - 1;
+            boolean hasNull = false;
+            for (Object e : elements) {
+                if (e == null) {
+                    hasNull = true;
+                    continue;
+                }
+                int i = hash(e) & mask;
+                for (Object x; (x = table[i]) != null; i = (i + 1) & mask) {
+                    if (x.equals(e)) {
+                        break;
+                    }
+                }
+                table[i] = e;
+            }
+            containsNull = hasNull;
+        }
+
+        private static int hash(Object o) {
+            int h = o.hashCode();
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean test(Object o) {
+            if (o == null) {
+                return containsNull;
+            }
+            for (int i = hash(o) & mask; ; i = (i + 1) & mask) {
+                Object x = table[i];
+                if (x == null) {
+                    return false;
+                }
+                if (o.equals(x)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.zhaohang.java.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * A List implementation that keeps its elements outside the Java heap, in direct byte buffers.
+ * Every element is converted to a fixed number of bytes by an ElementCodec,
+ * so the list can hold primitives and user-defined fixed-layout records alike.
+ * Only the chunk table lives on the heap, which keeps large lists out of the garbage collector's way.
+ *
+ * Storage is a sequence of equally sized chunks, each a direct buffer holding a power-of-two number of elements.
+ * Growing the list allocates a new chunk and never copies existing elements,
+ * and the total size is not limited by the 2 GB capacity of a single buffer.
+ * The get and set operations decode and encode one element in place and run in constant time;
+ * add(int, E) and remove(int) move the bytes of the subsequent elements, as an array-backed list would.
+ *
+ * The native memory is released deterministically by close(), not by the garbage collector.
+ * After the list is closed, every operation that needs the elements throws an IllegalStateException.
+ * Use the list in a try-with-resources statement, or make sure close() is called when it is no longer needed.
+ *
+ * Note that this implementation is not synchronized,
+ * and closing a list while another thread is still reading it is unsafe.
+ * The iterators returned by this class's iterator and listIterator methods are fail-fast.
+ * @param <E> the type of elements in this list.
+ */
+public class OffHeapList<E> extends AbstractList<E> implements RandomAccess, AutoCloseable {
+
+    /**
+     * Default number of elements per chunk.
+     */
+    private static final int DEFAULT_CHUNK_CAPACITY = 1 << 16;
+
+    private final ElementCodec<E> codec;
+
+    /**
+     * The number of bytes one element occupies.
+     */
+    private final int width;
+
+    /**
+     * log2 of the number of elements per chunk.
+     */
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    /**
+     * The direct buffers holding the elements; null once this list has been closed.
+     * Only the first chunkCount entries are allocated.
+     */
+    private ByteBuffer[] chunks;
+
+    private int chunkCount;
+
+    private int size;
+
+    /**
+     * A heap buffer of one element's width. set and add(int, E) encode into it first,
+     * so a codec that rejects an element throws before any bytes of the list are changed.
+     */
+    private final ByteBuffer scratch;
+
+    /**
+     * Constructs an empty off-heap list using the specified codec and the default chunk size.
+     * No native memory is allocated until the first element is added.
+     * @param codec the codec used to convert elements to and from bytes.
+     * @throws NullPointerException if the specified codec is null.
+     */
+    public OffHeapList(ElementCodec<E> codec) {
+        this(codec, DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty off-heap list using the specified codec and chunk size.
+     * @param codec the codec used to convert elements to and from bytes.
+     * @param chunkCapacity the number of elements per chunk; rounded up to a power of two.
+     * @throws NullPointerException if the specified codec is null.
+     * @throws IllegalArgumentException if chunkCapacity is not positive, or a chunk would exceed the capacity of a byte buffer.
+     */
+    public OffHeapList(ElementCodec<E> codec, int chunkCapacity) {
+        this.codec = Objects.requireNonNull(codec);
+        this.width = codec.byteSize();
+        if (width <= 0) {
+            throw new IllegalArgumentException("Illegal element width: " + width);
+        }
+        if (chunkCapacity <= 0 || chunkCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Illegal chunk capacity: " + chunkCapacity);
+        }
+        int capacity = Integer.highestOneBit(chunkCapacity);
+        if (capacity < chunkCapacity) {
+            capacity <<= 1;
+        }
+        if ((long) capacity * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk of " + capacity + " elements exceeds buffer capacity");
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(capacity);
+        this.chunkMask = capacity - 1;
+        this.chunks = new ByteBuffer[4];
+        this.scratch = ByteBuffer.allocate(width).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Releases the native memory held by this list.
+     * Calling close on a list that is already closed has no effect.
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] cs = chunks;
+        if (cs == null) {
+            return;
+        }
+        chunks = null;
+        modCount++;
+        for (int i = 0; i < chunkCount; i++) {
+            DirectBuffers.free(cs[i]);
+            cs[i] = null;
+        }
+        chunkCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns true if close() has been called on this list.
+     */
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    /**
+     * Frees the chunks that hold no elements.
+     */
+    public void trimToSize() {
+        ensureOpen();
+        int needed = (int) (((long) size + chunkMask) >>> chunkShift);
+        while (chunkCount > needed) {
+            DirectBuffers.free(chunks[--chunkCount]);
+            chunks[chunkCount] = null;
+        }
+    }
+
+    private void ensureOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("List is closed");
+        }
+    }
+
+    /**
+     * Allocates chunks until at least minCapacity elements fit.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) { // overflow
+            throw new OutOfMemoryError("Required list size too large");
+        }
+        while (((long) chunkCount << chunkShift) < minCapacity) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount << 1);
+            }
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(width << chunkShift).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private ByteBuffer chunk(int index) {
+        return chunks[index >>> chunkShift];
+    }
+
+    private int offset(int index) {
+        return (index & chunkMask) * width;
+    }
+
+    /**
+     * Copies the bytes of count elements starting at index from to the slots starting at index to,
+     * which may overlap them, like System.arraycopy.
+     * Each run of elements that stays within one source chunk and one destination chunk is copied with a single bulk put,
+     * so only the runs that reach a chunk edge are cut short; the copy walks backwards when moving right so no source is overwritten early.
+     */
+    private void moveElements(int from, int to, int count) {
+        int chunkCapacity = chunkMask + 1;
+        if (to > from) {
+            while (count > 0) {
+                int srcEnd = from + count, dstEnd = to + count;
+                int n = Math.min(count, Math.min(((srcEnd - 1) & chunkMask) + 1, ((dstEnd - 1) & chunkMask) + 1));
+                chunk(dstEnd - n).put(offset(dstEnd - n), chunk(srcEnd - n), offset(srcEnd - n), n * width);
+                count -= n;
+            }
+        } else {
+            while (count > 0) {
+                int n = Math.min(count, Math.min(chunkCapacity - (from & chunkMask), chunkCapacity - (to & chunkMask)));
+                chunk(to).put(offset(to), chunk(from), offset(from), n * width);
+                from += n;
+                to += n;
+                count -= n;
+            }
+        }
+    }
+
+    /**
+     * Copies the element encoded in the scratch buffer to the slot at index.
+     */
+    private void storeScratch(int index) {
+        chunk(index).put(offset(index), scratch, 0, width);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the element at the specified position in this list, decoded from native memory.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public E get(int index) {
+        ensureOpen();
+        rangeCheck(index);
+        return codec.decode(chunk(index), offset(index));
+    }
+
+    /**
+     * Replaces the element at the specified position in this list by encoding the specified element in place.
+     * If the codec rejects the element, the exception is thrown before the slot is overwritten.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public E set(int index, E element) {
+        ensureOpen();
+        rangeCheck(index);
+        E oldValue = codec.decode(chunk(index), offset(index));
+        codec.encode(scratch, 0, element);
+        storeScratch(index);
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public boolean add(E e) {
+        ensureOpen();
+        ensureCapacity(size + 1);
+        codec.encode(chunk(size), offset(size), e);
+        modCount++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list,
+     * moving the bytes of the subsequent elements one slot to the right.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public void add(int index, E element) {
+        ensureOpen();
+        rangeCheckForAdd(index);
+        ensureCapacity(size + 1);
+        codec.encode(scratch, 0, element);
+        moveElements(index, index + 1, size - index);
+        storeScratch(index);
+        modCount++;
+        size++;
+    }
+
+    /**
+     * Removes the element at the specified position in this list,
+     * moving the bytes of the subsequent elements one slot to the left.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     * @throws IllegalStateException if this list has been closed.
+     */
+    @Override
+    public E remove(int index) {
+        ensureOpen();
+        rangeCheck(index);
+        E oldValue = codec.decode(chunk(index), offset(index));
+        moveElements(index + 1, index, size - index - 1);
+        modCount++;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Removes all the elements from this list.
+     * The chunks stay allocated for reuse; call trimToSize() or close() to release them.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        modCount++;
+        size = 0;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        ensureOpen();
+        if (fromIndex < 0 || toIndex > size || toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+        }
+        moveElements(toIndex, fromIndex, size - toIndex);
+        modCount++;
+        size -= toIndex - fromIndex;
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size;
+    }
+}
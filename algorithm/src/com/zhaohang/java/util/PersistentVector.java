@@ -0,0 +1,423 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, persistent implementation of the List interface backed by a 32-way trie.
+ * A PersistentVector never changes after it is created; the methods with, append, concat and slice
+ * return a new vector and leave this one as it was, sharing every trie node that the change did not touch.
+ * That makes taking a snapshot free: a reader holding a vector sees a stable list no matter what writers do next.
+ *
+ * Element i lives at position origin + i of the trie, and the trie is 32 elements wide on every level,
+ * so get(int) follows at most log32(n) + 1 array references (seven for any int index).
+ * with(int, E) and append(E) copy only the arrays on the path to the changed position, O(log32 n) arrays of 32 slots.
+ * slice(int, int) runs in O(log32 n) time by narrowing the window over the same trie;
+ * note that a small slice of a large vector keeps the part of the trie around the window alive.
+ * concat(PersistentVector) appends the elements of its argument to a transient copy of this vector,
+ * costing O(m log32 n) for an argument of m elements, without copying the elements of this vector.
+ *
+ * Building a vector one append at a time copies a path per element.
+ * For batch construction use a Builder, which mutates the nodes it created itself in place
+ * and turns them into an immutable vector with build().
+ *
+ * The mutating methods of the List interface (add, set, remove, clear, ...) throw UnsupportedOperationException.
+ * Permits all elements, including null. Instances are safe to share between threads.
+ * @param <E> the type of elements in this vector.
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int BITS = 5;
+
+    private static final int WIDTH = 1 << BITS;
+
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(new Object[WIDTH], 0, 0, 0);
+
+    /**
+     * The root node. On the lowest level nodes hold elements; above that they hold child nodes.
+     * A child slot is null if no position below it has ever been written.
+     */
+    private final Object[] root;
+
+    /**
+     * BITS times the number of levels above the leaves; 0 if the root is a leaf.
+     */
+    private final int shift;
+
+    /**
+     * Trie position of element 0.
+     */
+    private final int origin;
+
+    private final int size;
+
+    private PersistentVector(Object[] root, int shift, int origin, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.origin = origin;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Returns a vector containing the specified elements, in order.
+     */
+    @SafeVarargs
+    public static <E> PersistentVector<E> of(E... elements) {
+        Builder<E> builder = new Builder<>();
+        for (E e : elements) {
+            builder.add(e);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a vector containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> copyOf(Collection<? extends E> c) {
+        if (c instanceof PersistentVector) {
+            return (PersistentVector<E>) c;
+        }
+        Builder<E> builder = new Builder<>();
+        builder.addAll(c);
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of positions the trie of the specified height can address.
+     */
+    private static long capacity(int shift) {
+        return 1L << (shift + BITS);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        rangeCheck(index);
+        return (E) leafFor(origin + index)[(origin + index) & MASK];
+    }
+
+    private Object[] leafFor(int pos) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(pos >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * Returns a vector equal to this one except that the element at the specified position is replaced.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    public PersistentVector<E> with(int index, E element) {
+        rangeCheck(index);
+        return new PersistentVector<>(assoc(root, shift, origin + index, element), shift, origin, size);
+    }
+
+    /**
+     * Returns a copy of the path from node down to pos, with the element at pos replaced.
+     * Missing nodes on the path are created.
+     */
+    private static Object[] assoc(Object[] node, int level, int pos, Object element) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[pos & MASK] = element;
+        } else {
+            int i = (pos >>> level) & MASK;
+            copy[i] = assoc((Object[]) copy[i], level - BITS, pos, element);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a vector with the specified element appended to the end of this one.
+     * @throws IllegalStateException if the vector would exceed the addressable size.
+     */
+    public PersistentVector<E> append(E element) {
+        int pos = origin + size;
+        if (pos < 0) {
+            throw new IllegalStateException("Vector too large");
+        }
+        Object[] r = root;
+        int s = shift;
+        if (pos >= capacity(s)) {
+            r = new Object[WIDTH];
+            r[0] = root;
+            s += BITS;
+        }
+        return new PersistentVector<>(assoc(r, s, pos, element), s, origin, size + 1);
+    }
+
+    /**
+     * Returns a vector holding the elements of this vector followed by the elements of the specified vector.
+     * The nodes of this vector are shared; the elements of the argument are appended through a Builder.
+     * @throws NullPointerException if the specified vector is null.
+     */
+    public PersistentVector<E> concat(PersistentVector<? extends E> other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            @SuppressWarnings("unchecked")
+            PersistentVector<E> result = (PersistentVector<E>) other;
+            return result;
+        }
+        Builder<E> builder = toBuilder();
+        other.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Returns the portion of this vector between fromIndex, inclusive, and toIndex, exclusive, as a vector.
+     * The result shares the trie of this vector; the root is narrowed to the smallest subtree that covers the range.
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of range
+     *         (fromIndex < 0 || toIndex > size() || fromIndex > toIndex).
+     */
+    public PersistentVector<E> slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+        }
+        if (fromIndex == toIndex) {
+            return empty();
+        }
+        Object[] r = root;
+        int s = shift;
+        int first = origin + fromIndex, last = origin + toIndex - 1;
+        // descend while the whole range lies below a single child
+        while (s > 0 && ((first >>> s) & MASK) == ((last >>> s) & MASK)) {
+            int i = (first >>> s) & MASK;
+            r = (Object[]) r[i];
+            first -= i << s;
+            last -= i << s;
+            s -= BITS;
+        }
+        return new PersistentVector<>(r, s, first, toIndex - fromIndex);
+    }
+
+    /**
+     * Returns a Builder initialized with the elements of this vector.
+     * The builder shares the nodes of this vector and copies each one the first time it changes it.
+     */
+    public Builder<E> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] r = new Object[size];
+        int i = 0;
+        while (i < size) {
+            int pos = origin + i;
+            Object[] leaf = leafFor(pos);
+            int from = pos & MASK;
+            int n = Math.min(WIDTH - from, size - i);
+            System.arraycopy(leaf, from, r, i, n);
+            i += n;
+        }
+        return r;
+    }
+
+    /**
+     * Performs the given action for each element of this vector, in order,
+     * looking up each leaf once instead of descending the trie for every element.
+     * @throws NullPointerException if the specified action is null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int i = 0;
+        while (i < size) {
+            int pos = origin + i;
+            Object[] leaf = leafFor(pos);
+            int from = pos & MASK;
+            int to = Math.min(WIDTH, from + size - i);
+            for (int j = from; j < to; j++) {
+                action.accept((E) leaf[j]);
+            }
+            i += to - from;
+        }
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(o, get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * A transient, single-threaded builder of PersistentVector instances.
+     * The builder changes the trie nodes it allocated itself in place,
+     * and copies a node shared with a vector only the first time it changes it,
+     * so appending n elements allocates about n / 32 leaves instead of a path per element.
+     * build() returns an immutable vector in O(1) time; the builder stays usable,
+     * but from then on treats every node as shared again.
+     * @param <E> the type of elements in the vector being built.
+     */
+    public static final class Builder<E> {
+
+        private Object[] root;
+
+        private int shift;
+
+        private int origin;
+
+        private int size;
+
+        /**
+         * The nodes this builder allocated since the last build(), which it may change in place.
+         */
+        private Set<Object[]> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * The owned leaf that the last append wrote to, and the trie position of its slot 0.
+         */
+        private Object[] lastLeaf;
+
+        private int lastLeafBase = -1;
+
+        /**
+         * Creates a builder for an empty vector.
+         */
+        public Builder() {
+            this(empty());
+        }
+
+        private Builder(PersistentVector<E> v) {
+            this.root = v.root;
+            this.shift = v.shift;
+            this.origin = v.origin;
+            this.size = v.size;
+        }
+
+        private Object[] ownedCopy(Object[] node) {
+            if (node != null && owned.contains(node)) {
+                return node;
+            }
+            Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+            owned.add(copy);
+            return copy;
+        }
+
+        /**
+         * Returns the owned leaf for position pos, copying shared nodes on the way down.
+         */
+        private Object[] editableLeaf(int pos) {
+            root = ownedCopy(root);
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                int i = (pos >>> level) & MASK;
+                Object[] child = ownedCopy((Object[]) node[i]);
+                node[i] = child;
+                node = child;
+            }
+            return node;
+        }
+
+        /**
+         * Appends the specified element.
+         * @return this builder.
+         * @throws IllegalStateException if the vector would exceed the addressable size.
+         */
+        public Builder<E> add(E element) {
+            int pos = origin + size;
+            if (pos < 0) {
+                throw new IllegalStateException("Vector too large");
+            }
+            if (lastLeaf == null || (pos & ~MASK) != lastLeafBase) {
+                if (pos >= capacity(shift)) {
+                    Object[] r = new Object[WIDTH];
+                    r[0] = root;
+                    owned.add(r);
+                    root = r;
+                    shift += BITS;
+                }
+                lastLeaf = editableLeaf(pos);
+                lastLeafBase = pos & ~MASK;
+            }
+            lastLeaf[pos & MASK] = element;
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends all the elements of the specified collection, in the order they are returned by its iterator.
+         * @return this builder.
+         * @throws NullPointerException if the specified collection is null.
+         */
+        @SuppressWarnings("unchecked")
+        public Builder<E> addAll(Collection<? extends E> c) {
+            for (Object e : c.toArray()) {
+                add((E) e);
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the element at the specified position.
+         * @return this builder.
+         * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+         */
+        public Builder<E> set(int index, E element) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int pos = origin + index;
+            editableLeaf(pos)[pos & MASK] = element;
+            return this;
+        }
+
+        /**
+         * Returns the number of elements added so far.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns an immutable vector holding the elements of this builder.
+         * The nodes are handed over to the vector; later changes to this builder copy them again.
+         */
+        public PersistentVector<E> build() {
+            owned = Collections.newSetFromMap(new IdentityHashMap<>());
+            lastLeaf = null;
+            lastLeafBase = -1;
+            return size == 0 ? empty() : new PersistentVector<>(root, shift, origin, size);
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.zhaohang.java.util;
+
+import com.zhaohang.java.lang.Iterable;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * A lazy sequence of operations over the elements of an iterable, in the manner of java.util.stream.Stream,
+ * for the Iterable and Iterator types of this package, which java.util.stream cannot consume directly.
+ * A pipeline is built with intermediate operations (map, filter, flatMap, limit, skip, distinct),
+ * which only record the stage, and is run by a terminal operation (forEach, reduce, collect, count, the match methods).
+ *
+ * The pipeline is push-based. When a terminal operation runs, every stage wraps the sink of the stage after it once,
+ * and the source then pushes its elements through the whole chain of sinks in a single loop:
+ * no stage has an iterator of its own, and an element costs one call per stage and no allocation.
+ * Consecutive map stages, and consecutive filter stages, are further fused into one stage each.
+ * A sink answers each element with whether it wants more, so limit, findFirst and the match methods stop the source
+ * as soon as the result is known, even inside flatMap.
+ *
+ * Pipelines are immutable and can be run more than once; each terminal operation traverses the source again
+ * and sees its current contents. The functions passed to a pipeline should be free of side effects.
+ * Pipelines are sequential; a parallel pipeline is available through the spliterator of the source.
+ * @param <T> the type of the elements of this pipeline.
+ */
+public abstract class Pipeline<T> {
+
+    /**
+     * The receiving end of a stage: accepts one element and answers whether it wants more.
+     */
+    @FunctionalInterface
+    interface Sink<T> {
+        boolean push(T t);
+    }
+
+    Pipeline() {}
+
+    /**
+     * Pushes the elements of this pipeline into the specified sink, in order, until they run out or the sink declines.
+     */
+    abstract void pushTo(Sink<? super T> sink);
+
+    /**
+     * Returns a pipeline over the elements of the specified iterable, in the order of its iterator.
+     * @throws NullPointerException if the iterable is null.
+     */
+    public static <T> Pipeline<T> from(Iterable<? extends T> source) {
+        Objects.requireNonNull(source);
+        return new Pipeline<T>() {
+            @Override
+            void pushTo(Sink<? super T> sink) {
+                pushBatches(source.iterator(), sink);
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline over the elements of the specified java.lang.Iterable, such as a list, in the order of its iterator.
+     * @throws NullPointerException if the iterable is null.
+     */
+    public static <T> Pipeline<T> from(java.lang.Iterable<? extends T> source) {
+        Objects.requireNonNull(source);
+        return new Pipeline<T>() {
+            @Override
+            void pushTo(Sink<? super T> sink) {
+                java.util.Iterator<? extends T> it = source.iterator();
+                if (it instanceof Iterator) {
+                    @SuppressWarnings("unchecked") Iterator<? extends T> batched = (Iterator<? extends T>) it;
+                    pushBatches(batched, sink);
+                    return;
+                }
+                while (it.hasNext() && sink.push(it.next())) {
+                }
+            }
+        };
+    }
+
+    /**
+     * Largest number of elements a source reads from its iterator at a time.
+     */
+    private static final int SOURCE_BATCH = 64;
+
+    /**
+     * Pushes the elements of the iterator into the sink, reading them in batches with nextBatch,
+     * until the iterator is exhausted or the sink refuses an element.
+     * The first batch holds a single element and each following one doubles, up to SOURCE_BATCH,
+     * so a short-circuiting sink such as that of findFirst or limit(1) reads no more than it pushes,
+     * and in general leaves no more elements read but not pushed than the sink has already accepted.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void pushBatches(Iterator<? extends T> it, Sink<? super T> sink) {
+        Object[] batch = new Object[SOURCE_BATCH];
+        int want = 1, n;
+        while ((n = it.nextBatch(batch, 0, want)) > 0) {
+            for (int i = 0; i < n; i++) {
+                if (!sink.push((T) batch[i])) {
+                    return;
+                }
+            }
+            want = Math.min(want << 1, SOURCE_BATCH);
+        }
+    }
+
+    /**
+     * Returns a pipeline over the specified elements, read from the array by index.
+     * @throws NullPointerException if the array is null.
+     */
+    @SafeVarargs
+    public static <T> Pipeline<T> of(T... values) {
+        Objects.requireNonNull(values);
+        return new Pipeline<T>() {
+            @Override
+            void pushTo(Sink<? super T> sink) {
+                for (int i = 0; i < values.length && sink.push(values[i]); i++) {
+                }
+            }
+        };
+    }
+
+    // *** Intermediate operations ***
+
+    /**
+     * Returns a pipeline of the results of applying the specified function to the elements of this pipeline.
+     * A map directly after a map is fused with it into a single stage.
+     * @throws NullPointerException if the function is null.
+     */
+    public <R> Pipeline<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+        return new MapStage<>(this, mapper);
+    }
+
+    /**
+     * Returns a pipeline of the elements of this pipeline that satisfy the specified predicate.
+     * A filter directly after a filter is fused with it into a single stage.
+     * @throws NullPointerException if the predicate is null.
+     */
+    public Pipeline<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return new FilterStage<>(this, predicate);
+    }
+
+    /**
+     * Returns a pipeline of the elements of the pipelines that the specified function returns for the elements of this pipeline,
+     * pushed straight through without buffering. A null result is treated as an empty pipeline.
+     * @throws NullPointerException if the function is null.
+     */
+    public <R> Pipeline<R> flatMap(Function<? super T, ? extends Pipeline<? extends R>> mapper) {
+        Objects.requireNonNull(mapper);
+        final Pipeline<T> upstream = this;
+        return new Pipeline<R>() {
+            @Override
+            void pushTo(Sink<? super R> sink) {
+                upstream.pushTo(new Sink<T>() {
+                    /**
+                     * Set when the downstream sink declines, to stop both the inner and the outer traversal.
+                     */
+                    boolean done;
+
+                    @Override
+                    public boolean push(T t) {
+                        Pipeline<? extends R> inner = mapper.apply(t);
+                        if (inner != null) {
+                            inner.pushTo(r -> {
+                                if (!sink.push(r)) {
+                                    done = true;
+                                }
+                                return !done;
+                            });
+                        }
+                        return !done;
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline of at most the first maxSize elements of this pipeline.
+     * The source is not traversed beyond the element that reaches the limit.
+     * @throws IllegalArgumentException if maxSize is negative.
+     */
+    public Pipeline<T> limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(Long.toString(maxSize));
+        }
+        final Pipeline<T> upstream = this;
+        return new Pipeline<T>() {
+            @Override
+            void pushTo(Sink<? super T> sink) {
+                if (maxSize == 0) {
+                    return;
+                }
+                upstream.pushTo(new Sink<T>() {
+                    long remaining = maxSize;
+
+                    @Override
+                    public boolean push(T t) {
+                        return sink.push(t) && --remaining > 0;
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline of the elements of this pipeline after the first n.
+     * @throws IllegalArgumentException if n is negative.
+     */
+    public Pipeline<T> skip(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException(Long.toString(n));
+        }
+        if (n == 0) {
+            return this;
+        }
+        final Pipeline<T> upstream = this;
+        return new Pipeline<T>() {
+            @Override
+            void pushTo(Sink<? super T> sink) {
+                upstream.pushTo(new Sink<T>() {
+                    long skipped;
+
+                    @Override
+                    public boolean push(T t) {
+                        if (skipped < n) {
+                            skipped++;
+                            return true;
+                        }
+                        return sink.push(t);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline of the distinct elements of this pipeline (according to equals), in order of first occurrence.
+     * The elements seen are kept in a RobinHoodHashSet for the duration of each run.
+     */
+    public Pipeline<T> distinct() {
+        final Pipeline<T> upstream = this;
+        return new Pipeline<T>() {
+            @Override
+            void pushTo(Sink<? super T> sink) {
+                RobinHoodHashSet<T> seen = new RobinHoodHashSet<>();
+                upstream.pushTo(t -> !seen.add(t) || sink.push(t));
+            }
+        };
+    }
+
+    // *** Terminal operations ***
+
+    /**
+     * Performs the specified action for each element of this pipeline, in order.
+     * @throws NullPointerException if the action is null.
+     */
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        pushTo(t -> {
+            action.accept(t);
+            return true;
+        });
+    }
+
+    /**
+     * Folds the elements of this pipeline with the specified associative function, starting from the identity value.
+     * @throws NullPointerException if the function is null.
+     */
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        Box<T> box = new Box<>(identity);
+        pushTo(t -> {
+            box.value = accumulator.apply(box.value, t);
+            return true;
+        });
+        return box.value;
+    }
+
+    /**
+     * Folds the elements of this pipeline with the specified associative function,
+     * returning an empty Optional if there are none.
+     * @throws NullPointerException if the function is null or the result of the reduction is null.
+     */
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        Box<T> box = new Box<>(null);
+        pushTo(t -> {
+            if (box.present) {
+                box.value = accumulator.apply(box.value, t);
+            } else {
+                box.value = t;
+                box.present = true;
+            }
+            return true;
+        });
+        return box.present ? Optional.of(box.value) : Optional.empty();
+    }
+
+    /**
+     * Performs a mutable reduction of the elements of this pipeline with the specified java.util.stream.Collector,
+     * such as one from java.util.stream.Collectors.
+     * @throws NullPointerException if the collector is null.
+     */
+    public <A, R> R collect(Collector<? super T, A, R> collector) {
+        Objects.requireNonNull(collector);
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        pushTo(t -> {
+            accumulator.accept(container, t);
+            return true;
+        });
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * Performs a mutable reduction of the elements of this pipeline into a container made by the specified supplier.
+     * @throws NullPointerException if the supplier or the accumulator is null.
+     */
+    public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        R container = supplier.get();
+        pushTo(t -> {
+            accumulator.accept(container, t);
+            return true;
+        });
+        return container;
+    }
+
+    /**
+     * Returns a new ArrayList of the elements of this pipeline, in order.
+     */
+    public ArrayList<T> toList() {
+        ArrayList<T> list = new ArrayList<>();
+        pushTo(list::add);
+        return list;
+    }
+
+    /**
+     * Returns the number of elements of this pipeline.
+     */
+    public long count() {
+        long[] count = new long[1];
+        pushTo(t -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Returns whether any element of this pipeline satisfies the predicate, stopping at the first that does.
+     * @throws NullPointerException if the predicate is null.
+     */
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        boolean[] found = new boolean[1];
+        pushTo(t -> !(found[0] = predicate.test(t)));
+        return found[0];
+    }
+
+    /**
+     * Returns whether all elements of this pipeline satisfy the predicate, stopping at the first that does not.
+     * @throws NullPointerException if the predicate is null.
+     */
+    public boolean allMatch(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return !anyMatch(predicate.negate());
+    }
+
+    /**
+     * Returns whether no element of this pipeline satisfies the predicate, stopping at the first that does.
+     * @throws NullPointerException if the predicate is null.
+     */
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        return !anyMatch(predicate);
+    }
+
+    /**
+     * Returns the first element of this pipeline, or an empty Optional if there is none, without traversing further.
+     * @throws NullPointerException if the first element is null.
+     */
+    public Optional<T> findFirst() {
+        Box<T> box = new Box<>(null);
+        pushTo(t -> {
+            box.value = t;
+            box.present = true;
+            return false;
+        });
+        return box.present ? Optional.of(box.value) : Optional.empty();
+    }
+
+    /**
+     * Returns the first element of this pipeline.
+     * @throws NoSuchElementException if this pipeline is empty.
+     */
+    public T first() {
+        return findFirst().orElseThrow(NoSuchElementException::new);
+    }
+
+    /**
+     * Mutable holder for the state of a reduction.
+     */
+    private static final class Box<T> {
+        T value;
+        boolean present;
+
+        Box(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * A map stage; a map applied to it composes the two functions into one stage.
+     */
+    private static final class MapStage<S, T> extends Pipeline<T> {
+
+        private final Pipeline<S> upstream;
+        private final Function<? super S, ? extends T> mapper;
+
+        MapStage(Pipeline<S> upstream, Function<? super S, ? extends T> mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        void pushTo(Sink<? super T> sink) {
+            final Function<? super S, ? extends T> f = mapper;
+            upstream.pushTo(s -> sink.push(f.apply(s)));
+        }
+
+        @Override
+        public <R> Pipeline<R> map(Function<? super T, ? extends R> next) {
+            Objects.requireNonNull(next);
+            final Function<? super S, ? extends T> f = mapper;
+            return new MapStage<S, R>(upstream, s -> next.apply(f.apply(s)));
+        }
+    }
+
+    /**
+     * A filter stage; a filter applied to it combines the two predicates into one stage.
+     */
+    private static final class FilterStage<T> extends Pipeline<T> {
+
+        private final Pipeline<T> upstream;
+        private final Predicate<? super T> predicate;
+
+        FilterStage(Pipeline<T> upstream, Predicate<? super T> predicate) {
+            this.upstream = upstream;
+            this.predicate = predicate;
+        }
+
+        @Override
+        void pushTo(Sink<? super T> sink) {
+            final Predicate<? super T> p = predicate;
+            upstream.pushTo(t -> !p.test(t) || sink.push(t));
+        }
+
+        @Override
+        public Pipeline<T> filter(Predicate<? super T> next) {
+            Objects.requireNonNull(next);
+            final Predicate<? super T> p = predicate;
+            return new FilterStage<>(upstream, t -> p.test(t) && next.test(t));
+        }
+    }
+}
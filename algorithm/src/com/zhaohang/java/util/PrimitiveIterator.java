@@ -0,0 +1,206 @@
+package com.zhaohang.java.util;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A base type for primitive specializations of Iterator.
+ * Specialized subtypes are provided for int, long and double values.
+ * The specialized subtype default implementations of Iterator.next and Iterator.forEachRemaining
+ * box primitive values to instances of their corresponding wrapper class.
+ * Callers that care about allocation should use the primitive next methods instead.
+ *
+ * Each subtype overloads forEachRemaining with a primitive consumer, as java.util.PrimitiveIterator does.
+ * An implicitly typed lambda matches both overloads, so callers pass a typed consumer or an explicitly typed lambda;
+ * the compiler's overloads warning for this deliberate pair is suppressed on the primitive methods.
+ * @param <T> the type of elements returned by this PrimitiveIterator.
+ */
+public interface PrimitiveIterator<T> extends Iterator<T> {
+
+    /**
+     * An Iterator specialized for int values.
+     */
+    interface OfInt extends PrimitiveIterator<Integer> {
+
+        /**
+         * Returns the next int element in the iteration.
+         * @return the next int element in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        int nextInt();
+
+        /**
+         * Performs the given action for each remaining element until all elements have been processed
+         * or the action throws an exception.
+         * @param action The action to be performed for each element.
+         * @throws NullPointerException if the specified action is null.
+         */
+        @SuppressWarnings("overloads")
+        default void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(nextInt());
+            }
+        }
+
+        /**
+         * Copies up to max of the remaining elements into the specified array without boxing,
+         * starting at the specified offset, and advances past them, as if by calling nextInt that many times.
+         * Returns the number of elements copied, which is less than max only if the iteration has ended.
+         * The default implementation calls hasNext and nextInt for each element.
+         * @throws IndexOutOfBoundsException if off or max is negative, or off + max is greater than dst.length.
+         */
+        default int nextBatch(int[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            int n = 0;
+            while (n < max && hasNext()) {
+                dst[off + n++] = nextInt();
+            }
+            return n;
+        }
+
+        /**
+         * The default implementation boxes the result of calling nextInt().
+         */
+        @Override
+        default Integer next() {
+            return nextInt();
+        }
+
+        @Override
+        default void forEachRemaining(Consumer<? super Integer> action) {
+            if (action instanceof IntConsumer) {
+                forEachRemaining((IntConsumer) action);
+            } else {
+                Objects.requireNonNull(action);
+                forEachRemaining((IntConsumer) action::accept);
+            }
+        }
+    }
+
+    /**
+     * An Iterator specialized for long values.
+     */
+    interface OfLong extends PrimitiveIterator<Long> {
+
+        /**
+         * Returns the next long element in the iteration.
+         * @return the next long element in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        long nextLong();
+
+        /**
+         * Performs the given action for each remaining element until all elements have been processed
+         * or the action throws an exception.
+         * @param action The action to be performed for each element.
+         * @throws NullPointerException if the specified action is null.
+         */
+        @SuppressWarnings("overloads")
+        default void forEachRemaining(LongConsumer action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(nextLong());
+            }
+        }
+
+        /**
+         * Copies up to max of the remaining elements into the specified array without boxing,
+         * starting at the specified offset, and advances past them, as if by calling nextLong that many times.
+         * Returns the number of elements copied, which is less than max only if the iteration has ended.
+         * The default implementation calls hasNext and nextLong for each element.
+         * @throws IndexOutOfBoundsException if off or max is negative, or off + max is greater than dst.length.
+         */
+        default int nextBatch(long[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            int n = 0;
+            while (n < max && hasNext()) {
+                dst[off + n++] = nextLong();
+            }
+            return n;
+        }
+
+        /**
+         * The default implementation boxes the result of calling nextLong().
+         */
+        @Override
+        default Long next() {
+            return nextLong();
+        }
+
+        @Override
+        default void forEachRemaining(Consumer<? super Long> action) {
+            if (action instanceof LongConsumer) {
+                forEachRemaining((LongConsumer) action);
+            } else {
+                Objects.requireNonNull(action);
+                forEachRemaining((LongConsumer) action::accept);
+            }
+        }
+    }
+
+    /**
+     * An Iterator specialized for double values.
+     */
+    interface OfDouble extends PrimitiveIterator<Double> {
+
+        /**
+         * Returns the next double element in the iteration.
+         * @return the next double element in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        double nextDouble();
+
+        /**
+         * Performs the given action for each remaining element until all elements have been processed
+         * or the action throws an exception.
+         * @param action The action to be performed for each element.
+         * @throws NullPointerException if the specified action is null.
+         */
+        @SuppressWarnings("overloads")
+        default void forEachRemaining(DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(nextDouble());
+            }
+        }
+
+        /**
+         * Copies up to max of the remaining elements into the specified array without boxing,
+         * starting at the specified offset, and advances past them, as if by calling nextDouble that many times.
+         * Returns the number of elements copied, which is less than max only if the iteration has ended.
+         * The default implementation calls hasNext and nextDouble for each element.
+         * @throws IndexOutOfBoundsException if off or max is negative, or off + max is greater than dst.length.
+         */
+        default int nextBatch(double[] dst, int off, int max) {
+            Objects.checkFromIndexSize(off, max, dst.length);
+            int n = 0;
+            while (n < max && hasNext()) {
+                dst[off + n++] = nextDouble();
+            }
+            return n;
+        }
+
+        /**
+         * The default implementation boxes the result of calling nextDouble().
+         */
+        @Override
+        default Double next() {
+            return nextDouble();
+        }
+
+        @Override
+        default void forEachRemaining(Consumer<? super Double> action) {
+            if (action instanceof DoubleConsumer) {
+                forEachRemaining((DoubleConsumer) action);
+            } else {
+                Objects.requireNonNull(action);
+                forEachRemaining((DoubleConsumer) action::accept);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.zhaohang.java.util;
+
+import java.util.Arrays;
+
+/**
+ * Least-significant-digit radix sorts for int and long keys, used by IntList and LongList.
+ * Each pass distributes the keys by one byte with a counting sort, so sorting takes
+ * 4 (int) or 8 (long) linear passes and never compares two keys.
+ * The top byte is distributed with its sign bit flipped, which puts negative keys first.
+ * A pass is skipped when every key has the same value in that byte, as is common for the high bytes of small keys.
+ * Small ranges are handed to Arrays.sort, which beats the fixed cost of the counting passes.
+ */
+final class RadixSort {
+
+    /**
+     * Below this many keys, Arrays.sort is faster.
+     */
+    static final int RADIX_THRESHOLD = 256;
+
+    private static final int RADIX = 256;
+
+    private RadixSort() {}
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the specified array into ascending numerical order.
+     */
+    static void sort(int[] a, int fromIndex, int toIndex) {
+        final int n = toIndex - fromIndex;
+        if (n < RADIX_THRESHOLD) {
+            Arrays.sort(a, fromIndex, toIndex);
+            return;
+        }
+        int[] src = a, dst = new int[n];
+        int srcOff = fromIndex, dstOff = 0;
+        final int[] count = new int[RADIX];
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            final int flip = shift == Integer.SIZE - 8 ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = srcOff, end = srcOff + n; i < end; i++) {
+                count[(src[i] >>> shift & 0xFF) ^ flip]++;
+            }
+            if (count[(src[srcOff] >>> shift & 0xFF) ^ flip] == n) {
+                continue; // every key has the same digit
+            }
+            for (int d = 0, sum = dstOff; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = srcOff, end = srcOff + n; i < end; i++) {
+                int v = src[i];
+                dst[count[(v >>> shift & 0xFF) ^ flip]++] = v;
+            }
+            int[] t = src; src = dst; dst = t;
+            int o = srcOff; srcOff = dstOff; dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, fromIndex, n);
+        }
+    }
+
+    /**
+     * Sorts the range [fromIndex, toIndex) of the specified array into ascending numerical order.
+     */
+    static void sort(long[] a, int fromIndex, int toIndex) {
+        final int n = toIndex - fromIndex;
+        if (n < RADIX_THRESHOLD) {
+            Arrays.sort(a, fromIndex, toIndex);
+            return;
+        }
+        long[] src = a, dst = new long[n];
+        int srcOff = fromIndex, dstOff = 0;
+        final int[] count = new int[RADIX];
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            final int flip = shift == Long.SIZE - 8 ? 0x80 : 0;
+            Arrays.fill(count, 0);
+            for (int i = srcOff, end = srcOff + n; i < end; i++) {
+                count[((int) (src[i] >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (count[((int) (src[srcOff] >>> shift) & 0xFF) ^ flip] == n) {
+                continue; // every key has the same digit
+            }
+            for (int d = 0, sum = dstOff; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = srcOff, end = srcOff + n; i < end; i++) {
+                long v = src[i];
+                dst[count[((int) (v >>> shift) & 0xFF) ^ flip]++] = v;
+            }
+            long[] t = src; src = dst; dst = t;
+            int o = srcOff; srcOff = dstOff; dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, fromIndex, n);
+        }
+    }
+}
@@ -0,0 +1,758 @@
+package com.zhaohang.java.util;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash table implementation of the Map interface, using Robin Hood linear probing.
+ * Keys, values and the hash of each key live in three parallel arrays, so a mapping costs no node object:
+ * a put allocates nothing unless the table has to grow.
+ *
+ * Each key is placed at the first free slot at or after its home slot (its hash masked by the table size).
+ * On insertion, an entry that is farther from its home slot than the entry occupying a slot takes that slot,
+ * and the displaced entry moves on; this "robs the rich to give to the poor" and keeps probe sequences short and even,
+ * so the table stays fast at high load factors. A lookup compares the cached hashes first and calls equals
+ * only on a hash match, and it stops as soon as it meets an entry nearer to its home slot than the key being sought would be.
+ * Removal shifts the following entries of the cluster back by one slot instead of leaving a tombstone,
+ * so the table never degrades after many removals.
+ *
+ * This implementation provides expected constant-time performance for get, put, containsKey and remove.
+ * Iteration over the collection views takes time proportional to the capacity of the table plus its size.
+ * The load factor (the fraction of slots that may be filled before the table doubles) is configurable
+ * and defaults to 0.8.
+ *
+ * Permits null values and the null key. Note that this implementation is not synchronized.
+ * The iterators of the collection views are fail-fast.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <K> the type of keys maintained by this map.
+ * @param <V> the type of mapped values.
+ */
+public class RobinHoodHashMap<K, V> implements Map<K, V> {
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified by either of the constructors with arguments.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.8f;
+
+    /**
+     * The cached hash of the key in each slot, with its top bit set so that it is never zero; zero marks a free slot.
+     * The length is always a power of two.
+     */
+    transient int[] hashes;
+
+    transient Object[] keys;
+
+    transient Object[] vals;
+
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor), always less than the capacity.
+     */
+    int threshold;
+
+    final float loadFactor;
+
+    transient Set<K> keySet;
+
+    transient Collection<V> values;
+
+    transient Set<Map.Entry<K, V>> entrySet;
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and the default load factor (0.8).
+     */
+    public RobinHoodHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map that can hold the specified number of mappings without growing,
+     * with the default load factor (0.8).
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public RobinHoodHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map that can hold the specified number of mappings without growing, with the specified load factor.
+     * @throws IllegalArgumentException if the initial capacity is negative or the load factor is not strictly between 0 and 1.
+     */
+    public RobinHoodHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Constructs a map with the same mappings as the specified map, with the default load factor (0.8).
+     * @throws NullPointerException if the specified map is null.
+     */
+    public RobinHoodHashMap(Map<? extends K, ? extends V> m) {
+        this(m.size(), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * Returns the power of two table size that holds the specified number of mappings within the load factor.
+     */
+    private int tableSizeFor(int mappings) {
+        double needed = Math.ceil(mappings / (double) loadFactor) + 1;
+        if (needed >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        int n = Integer.highestOneBit(Math.max((int) needed, 2) - 1) << 1;
+        return Math.max(n, 2);
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        keys = new Object[capacity];
+        vals = new Object[capacity];
+        threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /**
+     * Spreads the higher bits of the hash code downward, as java.util.HashMap does,
+     * and sets the top bit so that a cached hash is never zero.
+     */
+    static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return (h ^ (h >>> 16)) | 0x80000000;
+    }
+
+    /**
+     * Returns the distance of the specified slot from the home slot of the specified hash.
+     */
+    private static int distance(int slot, int hash, int mask) {
+        return (slot - hash) & mask;
+    }
+
+    /**
+     * Returns the slot holding the specified key, or -1 if it is absent.
+     */
+    final int findSlot(Object key) {
+        final int[] hs = hashes;
+        final int mask = hs.length - 1;
+        final int h = hash(key);
+        for (int i = h & mask, dist = 0; ; i = (i + 1) & mask, dist++) {
+            int sh = hs[i];
+            // a free slot, or an entry richer than the key would be, ends the probe
+            if (sh == 0 || distance(i, sh, mask) < dist) {
+                return -1;
+            }
+            if (sh == h && Objects.equals(key, keys[i])) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Inserts a mapping for a key known to be absent, displacing richer entries along the way.
+     * The table must have a free slot.
+     */
+    private void insert(int h, Object key, Object value) {
+        final int[] hs = hashes;
+        final Object[] ks = keys;
+        final Object[] vs = vals;
+        final int mask = hs.length - 1;
+        for (int i = h & mask, dist = 0; ; i = (i + 1) & mask, dist++) {
+            int sh = hs[i];
+            if (sh == 0) {
+                hs[i] = h;
+                ks[i] = key;
+                vs[i] = value;
+                return;
+            }
+            int d = distance(i, sh, mask);
+            if (d < dist) {
+                // take the slot from the richer entry and carry it onwards
+                hs[i] = h;
+                h = sh;
+                Object k = ks[i];
+                ks[i] = key;
+                key = k;
+                Object v = vs[i];
+                vs[i] = value;
+                value = v;
+                dist = d;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry in the specified slot by shifting the rest of its cluster back by one slot.
+     * An entry that wraps from the start of the table to its end is reported to the iterator, if any,
+     * when the iterator has not visited its old slot yet.
+     */
+    final void removeAt(int i, HashIterator<?> it) {
+        final int[] hs = hashes;
+        final Object[] ks = keys;
+        final Object[] vs = vals;
+        final int mask = hs.length - 1;
+        modCount++;
+        size--;
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            int sh = hs[j];
+            if (sh == 0 || distance(j, sh, mask) == 0) {
+                break;
+            }
+            if (it != null && j < i && j < it.index) {
+                it.addWrapped(ks[j], vs[j]);
+            }
+            hs[i] = sh;
+            ks[i] = ks[j];
+            vs[i] = vs[j];
+            i = j;
+        }
+        hs[i] = 0;
+        ks[i] = null;
+        vs[i] = null;
+    }
+
+    /**
+     * Doubles the table, reinserting every entry.
+     */
+    private void resize(int newCapacity) {
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        allocate(newCapacity);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) {
+                insert(oldHashes[i], oldKeys[i], oldVals[i]);
+            }
+        }
+    }
+
+    private void ensureCapacity(int mappings) {
+        if (mappings > threshold) {
+            if (hashes.length == MAXIMUM_CAPACITY) {
+                if (mappings >= MAXIMUM_CAPACITY) {
+                    throw new IllegalStateException("Map too big");
+                }
+                return;
+            }
+            resize(Math.max(tableSizeFor(mappings), hashes.length << 1));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        final int[] hs = hashes;
+        final Object[] vs = vals;
+        for (int i = 0; i < hs.length; i++) {
+            if (hs[i] != 0 && Objects.equals(value, vs[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int i = findSlot(key);
+        return i < 0 ? null : (V) vals[i];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int i = findSlot(key);
+        return i < 0 ? defaultValue : (V) vals[i];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int i = findSlot(key);
+        if (i >= 0) {
+            V oldValue = (V) vals[i];
+            vals[i] = value;
+            return oldValue;
+        }
+        ensureCapacity(size + 1);
+        insert(hash(key), key, value);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int i = findSlot(key);
+        if (i < 0) {
+            return null;
+        }
+        V oldValue = (V) vals[i];
+        removeAt(i, null);
+        return oldValue;
+    }
+
+    /**
+     * Copies all the mappings from the specified map to this map, growing the table at most once beforehand.
+     * @throws NullPointerException if the specified map is null.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        ensureCapacity(size + m.size());
+        m.forEach(this::put);
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            modCount++;
+            size = 0;
+            Arrays.fill(hashes, 0);
+            Arrays.fill(keys, null);
+            Arrays.fill(vals, null);
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping, reading the table arrays directly without creating entries.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if the map was structurally modified during the traversal.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        final int[] hs = hashes;
+        final int expectedModCount = modCount;
+        for (int i = 0; i < hs.length && modCount == expectedModCount; i++) {
+            if (hs[i] != 0) {
+                action.accept((K) keys[i], (V) vals[i]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> ks = keySet;
+        if (ks == null) {
+            ks = new KeySet();
+            keySet = ks;
+        }
+        return ks;
+    }
+
+    @Override
+    public Collection<V> values() {
+        Collection<V> vs = values;
+        if (vs == null) {
+            vs = new Values();
+            values = vs;
+        }
+        return vs;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        if (es == null) {
+            es = new EntrySet();
+            entrySet = es;
+        }
+        return es;
+    }
+
+    /**
+     * Compares the specified object with this map for equality.
+     * Returns true if the given object is also a map with the same size, and every mapping of this map is in it.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> m = (Map<?, ?>) o;
+        if (m.size() != size) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                if (hashes[i] != 0) {
+                    Object key = keys[i];
+                    Object value = vals[i];
+                    if (value == null) {
+                        if (!(m.get(key) == null && m.containsKey(key))) {
+                            return false;
+                        }
+                    } else if (!value.equals(m.get(key))) {
+                        return false;
+                    }
+                }
+            }
+        } catch (ClassCastException | NullPointerException unused) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                h += Objects.hashCode(keys[i]) ^ Objects.hashCode(vals[i]);
+            }
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "{}";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        boolean first = true;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                if (!first) {
+                    sb.append(',').append(' ');
+                }
+                first = false;
+                Object key = keys[i];
+                Object value = vals[i];
+                sb.append(key == this ? "(this Map)" : key);
+                sb.append('=');
+                sb.append(value == this ? "(this Map)" : value);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Base of the view iterators. Walks the table from its last slot down to slot 0,
+     * because removal only ever moves entries to lower slots, except for the entries that wrap around from the start
+     * of the table to its end; those are collected as they move and returned after the table walk.
+     */
+    abstract class HashIterator<T> implements Iterator<T> {
+
+        /**
+         * The slots below index have not been visited yet.
+         */
+        int index = hashes.length;
+
+        /**
+         * The slot of the last entry returned from the table walk, or -1.
+         */
+        int lastRet = -1;
+
+        /**
+         * Key and value pairs of the entries that wrapped past the walk, and the read position in them.
+         */
+        Object[] wrapped;
+        int wrappedCount;
+        int wrappedPos;
+
+        /**
+         * The key of the last entry returned from the wrapped entries, valid if lastWrapped is true.
+         */
+        Object lastKey;
+        boolean lastWrapped;
+
+        int expectedModCount = modCount;
+
+        void addWrapped(Object key, Object value) {
+            if (wrapped == null) {
+                wrapped = new Object[8];
+            } else if (wrappedCount == wrapped.length) {
+                wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+            }
+            wrapped[wrappedCount++] = key;
+            wrapped[wrappedCount++] = value;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final int[] hs = hashes;
+            while (index > 0 && hs[index - 1] == 0) {
+                index--;
+            }
+            return index > 0 || wrappedPos < wrappedCount;
+        }
+
+        /**
+         * Advances to the next entry and returns the slot to read it from, or -1 when it is a wrapped entry at wrappedPos - 2.
+         */
+        final int nextSlot() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (index > 0) {
+                lastRet = --index;
+                lastWrapped = false;
+                return lastRet;
+            }
+            lastRet = -1;
+            lastWrapped = true;
+            lastKey = wrapped[wrappedPos];
+            wrappedPos += 2;
+            return -1;
+        }
+
+        @Override
+        public void remove() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (lastWrapped) {
+                lastWrapped = false;
+                removeAt(findSlot(lastKey), null);
+            } else if (lastRet >= 0) {
+                removeAt(lastRet, this);
+                lastRet = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+            expectedModCount = modCount;
+        }
+    }
+
+    final class KeyIterator extends HashIterator<K> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            int i = nextSlot();
+            return (K) (i >= 0 ? keys[i] : lastKey);
+        }
+    }
+
+    final class ValueIterator extends HashIterator<V> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            int i = nextSlot();
+            return (V) (i >= 0 ? vals[i] : wrapped[wrappedPos - 1]);
+        }
+    }
+
+    final class EntryIterator extends HashIterator<Map.Entry<K, V>> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            int i = nextSlot();
+            return i >= 0 ? new Node((K) keys[i], (V) vals[i]) : new Node((K) lastKey, (V) wrapped[wrappedPos - 1]);
+        }
+    }
+
+    /**
+     * A mapping handed out by the entry iterator. The table stores no entry objects; setValue writes through with put.
+     */
+    final class Node implements Map.Entry<K, V> {
+        final K key;
+        V value;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o instanceof Map.Entry) {
+                Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            int i = findSlot(key);
+            if (i < 0) {
+                return false;
+            }
+            removeAt(i, null);
+            return true;
+        }
+
+        @Override
+        public void forEach(Consumer<? super K> action) {
+            Objects.requireNonNull(action);
+            RobinHoodHashMap.this.forEach((k, v) -> action.accept(k));
+        }
+    }
+
+    final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void forEach(Consumer<? super V> action) {
+            Objects.requireNonNull(action);
+            RobinHoodHashMap.this.forEach((k, v) -> action.accept(v));
+        }
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            RobinHoodHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        /**
+         * Returns the slot of the mapping equal to the specified entry, or -1.
+         */
+        private int slotOf(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return -1;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            int i = findSlot(e.getKey());
+            return i >= 0 && Objects.equals(vals[i], e.getValue()) ? i : -1;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return slotOf(o) >= 0;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int i = slotOf(o);
+            if (i < 0) {
+                return false;
+            }
+            removeAt(i, null);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.zhaohang.java.util;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * This class implements the Set interface, backed by a RobinHoodHashMap, in the way java.util.HashSet is backed by a HashMap.
+ * The elements are the keys of the map, all mapped to one shared dummy value,
+ * so membership tests, insertions and removals inherit the open-addressing table's expected constant time,
+ * cached-hash comparisons and tombstone-free removal, and an element costs no node object.
+ *
+ * It makes no guarantees as to the iteration order of the set. This class permits the null element.
+ * The load factor is configurable and defaults to 0.8.
+ * Note that this implementation is not synchronized. The iterators returned by this class's iterator method are fail-fast.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements maintained by this set.
+ */
+public class RobinHoodHashSet<E> extends AbstractSet<E> {
+
+    private transient RobinHoodHashMap<E, Object> map;
+
+    /**
+     * Dummy value to associate with an Object in the backing Map.
+     */
+    private static final Object PRESENT = new Object();
+
+    /**
+     * Constructs a new, empty set with the default initial capacity (16) and load factor (0.8).
+     */
+    public RobinHoodHashSet() {
+        map = new RobinHoodHashMap<>();
+    }
+
+    /**
+     * Constructs a new, empty set that can hold the specified number of elements without growing.
+     * @throws IllegalArgumentException if the initial capacity is less than zero.
+     */
+    public RobinHoodHashSet(int initialCapacity) {
+        map = new RobinHoodHashMap<>(initialCapacity);
+    }
+
+    /**
+     * Constructs a new, empty set that can hold the specified number of elements without growing, with the specified load factor.
+     * @throws IllegalArgumentException if the initial capacity is less than zero, or if the load factor is not strictly between 0 and 1.
+     */
+    public RobinHoodHashSet(int initialCapacity, float loadFactor) {
+        map = new RobinHoodHashMap<>(initialCapacity, loadFactor);
+    }
+
+    /**
+     * Constructs a new set containing the elements in the specified collection.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public RobinHoodHashSet(Collection<? extends E> c) {
+        map = new RobinHoodHashMap<>(c.size());
+        addAll(c);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return map.put(e, PRESENT) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return map.remove(o) == PRESENT;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Performs the given action for each element, reading the table directly.
+     * @throws NullPointerException if the specified action is null.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        map.forEach((k, v) -> action.accept(k));
+    }
+}
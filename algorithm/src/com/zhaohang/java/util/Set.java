@@ -0,0 +1,64 @@
+package com.zhaohang.java.util;
+
+/**
+ * A collection that contains no duplicate elements.
+ * More formally, sets contain no pair of elements e1 and e2 such that e1.equals(e2), and at most one null element.
+ * As implied by its name, this interface models the mathematical set abstraction.
+ *
+ * The Set interface places additional stipulations, beyond those inherited from the Collection interface,
+ * on the contracts of the add, equals and hashCode methods.
+ * Declarations for other inherited methods are also included here for convenience.
+ *
+ * Great care must be exercised if mutable objects are used as set elements.
+ * The behavior of a set is not specified if the value of an object is changed in a manner that affects equals comparisons
+ * while the object is an element in the set.
+ *
+ * This interface is a member of Java Collection Framework.
+ * @param <E> the type of elements maintained by this set.
+ */
+public interface Set<E> extends Collection<E> {
+
+    /**
+     * Returns true if this set contains the specified element.
+     * More formally, returns true if and only if this set contains an element e such that (o == null ? e == null : o.equals(e)).
+     */
+    @Override
+    boolean contains(Object o);
+
+    /**
+     * Adds the specified element to this set if it is not already present (optional operation).
+     * If this set already contains the element, the call leaves the set unchanged and returns false.
+     * In combination with the restriction on constructors, this ensures that sets never contain duplicate elements.
+     * @return true if this set did not already contain the specified element.
+     * @throws UnsupportedOperationException if the add operation is not supported by this set.
+     * @throws NullPointerException if the specified element is null and this set does not permit null elements.
+     */
+    @Override
+    boolean add(E e);
+
+    /**
+     * Removes the specified element from this set if it is present (optional operation).
+     * @return true if this set contained the specified element.
+     * @throws UnsupportedOperationException if the remove operation is not supported by this set.
+     */
+    @Override
+    boolean remove(Object o);
+
+    /**
+     * Compares the specified object with this set for equality.
+     * Returns true if the specified object is also a set, the two sets have the same size,
+     * and every member of the specified set is contained in this set (or equivalently, every member of this set is contained in the specified set).
+     * This definition ensures that the equals method works properly across different implementations of the set interface.
+     */
+    @Override
+    boolean equals(Object o);
+
+    /**
+     * Returns the hash code value for this set.
+     * The hash code of a set is defined to be the sum of the hash codes of the elements in the set,
+     * where the hash code of a null element is defined to be zero.
+     * This ensures that s1.equals(s2) implies that s1.hashCode() == s2.hashCode() for any two sets s1 and s2.
+     */
+    @Override
+    int hashCode();
+}
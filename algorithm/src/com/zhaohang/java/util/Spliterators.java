@@ -0,0 +1,129 @@
+package com.zhaohang.java.util;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Static methods for creating java.util.Spliterator instances over the iterators of this package,
+ * so that its collections can be the source of a java.util.stream pipeline.
+ * The spliterators returned here traverse the underlying Iterator and split off batches copied into arrays,
+ * which gives some parallelism even though the source has no way to split itself.
+ * Collections that can split cheaply (such as lists supporting random access) should override spliterator() instead.
+ */
+public final class Spliterators {
+
+    private Spliterators() {}
+
+    /**
+     * Creates a Spliterator using the given collection's iterator as the source of elements,
+     * and reporting its size() as the initial size.
+     * The spliterator is late-binding: it obtains the iterator and the size when traversal or splitting starts.
+     * @param c the collection.
+     * @param characteristics characteristics of this spliterator's source or elements;
+     *                        SIZED and SUBSIZED are reported as well unless CONCURRENT is supplied.
+     * @param <T> the type of elements.
+     * @return a spliterator over the elements of the collection.
+     * @throws NullPointerException if the given collection is null.
+     */
+    public static <T> Spliterator<T> spliterator(Collection<? extends T> c, int characteristics) {
+        Objects.requireNonNull(c);
+        return new IteratorSpliterator<>(c, characteristics);
+    }
+
+    /**
+     * Creates a Spliterator using a given Iterator as the source of elements, with no initial size estimate.
+     * @param iterator the iterator for the source.
+     * @param characteristics characteristics of this spliterator's source or elements
+     *                        (SIZED and SUBSIZED, if supplied, are ignored and are not reported).
+     * @param <T> the type of elements.
+     * @return a spliterator from an iterator.
+     * @throws NullPointerException if the given iterator is null.
+     */
+    public static <T> Spliterator<T> spliteratorUnknownSize(Iterator<? extends T> iterator, int characteristics) {
+        return java.util.Spliterators.spliteratorUnknownSize(adapt(iterator), characteristics);
+    }
+
+    /**
+     * Views an Iterator of this package as a java.util.Iterator, forwarding hasNext, next, remove and forEachRemaining.
+     */
+    static <T> java.util.Iterator<T> adapt(Iterator<? extends T> iterator) {
+        Objects.requireNonNull(iterator);
+        return new java.util.Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                iterator.forEachRemaining(action);
+            }
+        };
+    }
+
+    /**
+     * A sized Spliterator over a collection of this package.
+     * Once the collection is bound, the work is delegated to the java.util spliterator over the adapted iterator,
+     * which handles batching for trySplit.
+     */
+    static final class IteratorSpliterator<T> implements Spliterator<T> {
+
+        private final Collection<? extends T> collection;
+
+        private final int characteristics;
+
+        private Spliterator<T> delegate;
+
+        IteratorSpliterator(Collection<? extends T> collection, int characteristics) {
+            this.collection = collection;
+            this.characteristics = (characteristics & Spliterator.CONCURRENT) == 0
+                    ? characteristics | Spliterator.SIZED | Spliterator.SUBSIZED
+                    : characteristics;
+        }
+
+        private Spliterator<T> bind() {
+            Spliterator<T> s = delegate;
+            if (s == null) {
+                delegate = s = java.util.Spliterators.spliterator(
+                        adapt(collection.iterator()), collection.size(), characteristics);
+            }
+            return s;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return bind().tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            bind().forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return bind().trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return bind().estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+}
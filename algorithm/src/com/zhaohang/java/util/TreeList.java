@@ -0,0 +1,796 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Balanced tree implementation of the List interface (a rope),
+ * for large lists that are edited at random positions.
+ * The elements are kept in small arrays at the leaves of an AVL tree,
+ * and every internal node records the number of elements below it,
+ * so a position is found by descending from the root.
+ *
+ * The get, set, add(int, E) and remove(int) operations run in O(log n) time,
+ * instead of the O(n) element shifting of an array-backed list.
+ * Whole trees can be cut and joined in O(log n) time as well:
+ * splitOff(int) moves the tail of the list into a new list, concat(TreeList) moves another list onto the end of this one,
+ * and removeRange (and so clear on a range) splits out the range and joins the rest back together.
+ * Iteration walks the leaves in order and costs O(1) amortized per element.
+ *
+ * Permits all elements, including null.
+ * Note that this implementation is not synchronized.
+ * The iterators returned by this class's iterator and listIterator methods are fail-fast.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements in this list.
+ */
+public class TreeList<E> extends AbstractList<E> {
+
+    /**
+     * The maximum number of elements a leaf holds.
+     * A full leaf is split in two when an element is inserted into it.
+     */
+    private static final int MAX_LEAF = 64;
+
+    /**
+     * The minimum number of elements a leaf other than the root holds after a removal.
+     * A leaf that drops below it is merged with, or refilled from, its neighbour.
+     */
+    private static final int MIN_LEAF = MAX_LEAF / 2;
+
+    /**
+     * The root of the tree; null when the list is empty.
+     */
+    private Node root;
+
+    /**
+     * Constructs an empty list.
+     */
+    public TreeList() {}
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * The tree is built bottom-up in O(n) time.
+     * @param c the collection whose elements are to be placed into this list.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public TreeList(Collection<? extends E> c) {
+        root = build(c.toArray());
+    }
+
+    private TreeList(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * A node of the tree. Leaves have height 0.
+     */
+    private abstract static class Node {
+        int size;
+        int height;
+    }
+
+    private static final class Leaf extends Node {
+        Object[] elements;
+
+        Leaf(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+    }
+
+    private static final class Branch extends Node {
+        Node left;
+        Node right;
+
+        Branch(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+            update();
+        }
+
+        void update() {
+            size = left.size + right.size;
+            height = Math.max(left.height, right.height) + 1;
+        }
+    }
+
+    private static int height(Node n) {
+        return n == null ? -1 : n.height;
+    }
+
+    // Balancing
+
+    private static Branch rotateRight(Branch n) {
+        Branch l = (Branch) n.left;
+        n.left = l.right;
+        n.update();
+        l.right = n;
+        l.update();
+        return l;
+    }
+
+    private static Branch rotateLeft(Branch n) {
+        Branch r = (Branch) n.right;
+        n.right = r.left;
+        n.update();
+        r.left = n;
+        r.update();
+        return r;
+    }
+
+    /**
+     * Restores the AVL property at a branch whose children differ in height by at most two.
+     */
+    private static Branch rebalance(Branch n) {
+        n.update();
+        int balance = n.left.height - n.right.height;
+        if (balance > 1) {
+            Branch l = (Branch) n.left;
+            if (l.left.height < l.right.height) {
+                n.left = rotateLeft(l);
+            }
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            Branch r = (Branch) n.right;
+            if (r.right.height < r.left.height) {
+                n.right = rotateRight(r);
+            }
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    /**
+     * Concatenates two trees, either of which may be null, in O(|height(l) - height(r)| + 1) time.
+     * Every element of l ends up before every element of r.
+     */
+    private static Node join(Node l, Node r) {
+        if (l == null) {
+            return r;
+        }
+        if (r == null) {
+            return l;
+        }
+        if (l.height > r.height + 1) {
+            return joinRight((Branch) l, r);
+        }
+        if (r.height > l.height + 1) {
+            return joinLeft(l, (Branch) r);
+        }
+        if (l instanceof Leaf && r instanceof Leaf && l.size + r.size <= MAX_LEAF) {
+            return merge((Leaf) l, (Leaf) r);
+        }
+        return new Branch(l, r);
+    }
+
+    /**
+     * Returns a new leaf holding the elements of a followed by those of b, which must fit in one leaf.
+     */
+    private static Leaf merge(Leaf a, Leaf b) {
+        Object[] es = Arrays.copyOf(a.elements, a.size + b.size);
+        System.arraycopy(b.elements, 0, es, a.size, b.size);
+        return new Leaf(es, es.length);
+    }
+
+    /**
+     * Moves elements between two adjacent leaves, which hold more than MAX_LEAF elements together,
+     * so that each holds half of them, keeping their order.
+     */
+    private static void share(Leaf l, Leaf r) {
+        int total = l.size + r.size;
+        Object[] es = Arrays.copyOf(l.elements, total);
+        System.arraycopy(r.elements, 0, es, l.size, r.size);
+        int half = total >>> 1;
+        l.elements = Arrays.copyOf(es, half);
+        l.size = half;
+        r.elements = Arrays.copyOfRange(es, half, total);
+        r.size = total - half;
+    }
+
+    /**
+     * Joins two trees like join, first mending the leaves on either side of the seam
+     * if either holds fewer than MIN_LEAF elements, as cutting a tree at an arbitrary index may leave them:
+     * the two leaves are cut out of their trees and merged, or refilled from each other, before everything is joined back.
+     */
+    private static Node joinAtSeam(Node l, Node r) {
+        if (l == null || r == null) {
+            return l == null ? mendEdge(r, true) : mendEdge(l, false);
+        }
+        int lastSize = edgeLeaf(l, false).size, firstSize = edgeLeaf(r, true).size;
+        if (lastSize >= MIN_LEAF && firstSize >= MIN_LEAF) {
+            return join(l, r);
+        }
+        Node[] head = split(l, l.size - lastSize);
+        Node[] tail = split(r, firstSize);
+        Leaf a = (Leaf) head[1], b = (Leaf) tail[0];
+        if (a.size + b.size > MAX_LEAF) {
+            share(a, b);
+        }
+        Node mid = join(a, b);
+        if (mid.size < MIN_LEAF) {
+            // both leaves were small, so the merged one still is: mend it against its other neighbours too
+            return joinAtSeam(head[0], joinAtSeam(mid, tail[1]));
+        }
+        return join(join(head[0], mid), tail[1]);
+    }
+
+    /**
+     * Mends the first or the last leaf of a tree, which a cut may have left with fewer than MIN_LEAF elements,
+     * against its neighbour inside the tree. A tree that is a single leaf is returned as is, as that leaf is its root.
+     */
+    private static Node mendEdge(Node n, boolean first) {
+        if (!(n instanceof Branch)) {
+            return n;
+        }
+        int edgeSize = edgeLeaf(n, first).size;
+        if (edgeSize >= MIN_LEAF) {
+            return n;
+        }
+        Node[] parts = split(n, first ? edgeSize : n.size - edgeSize);
+        return joinAtSeam(parts[0], parts[1]);
+    }
+
+    /**
+     * Returns the first or the last leaf of a tree.
+     */
+    private static Leaf edgeLeaf(Node n, boolean first) {
+        while (n instanceof Branch) {
+            n = first ? ((Branch) n).left : ((Branch) n).right;
+        }
+        return (Leaf) n;
+    }
+
+    /**
+     * Joins r onto the right spine of the taller tree l.
+     */
+    private static Node joinRight(Branch l, Node r) {
+        Node c = l.right;
+        if (c.height <= r.height + 1) {
+            Branch t = new Branch(c, r);
+            if (t.height <= l.left.height + 1) {
+                l.right = t;
+                l.update();
+                return l;
+            }
+            l.right = rotateRight(t);
+            return rotateLeft(l);
+        }
+        Node t = joinRight((Branch) c, r);
+        l.right = t;
+        l.update();
+        if (t.height <= l.left.height + 1) {
+            return l;
+        }
+        return rotateLeft(l);
+    }
+
+    /**
+     * Joins l onto the left spine of the taller tree r.
+     */
+    private static Node joinLeft(Node l, Branch r) {
+        Node c = r.left;
+        if (c.height <= l.height + 1) {
+            Branch t = new Branch(l, c);
+            if (t.height <= r.right.height + 1) {
+                r.left = t;
+                r.update();
+                return r;
+            }
+            r.left = rotateLeft(t);
+            return rotateRight(r);
+        }
+        Node t = joinLeft(l, (Branch) c);
+        r.left = t;
+        r.update();
+        if (t.height <= r.right.height + 1) {
+            return r;
+        }
+        return rotateRight(r);
+    }
+
+    /**
+     * Splits a tree into the trees holding its first index elements and the rest, in O(log n) time.
+     * @return a two-element array {left, right}; either may be null.
+     */
+    private static Node[] split(Node n, int index) {
+        if (n == null) {
+            return new Node[2];
+        }
+        if (index == 0) {
+            return new Node[] {null, n};
+        }
+        if (index == n.size) {
+            return new Node[] {n, null};
+        }
+        if (n instanceof Leaf) {
+            Leaf leaf = (Leaf) n;
+            Object[] head = Arrays.copyOf(leaf.elements, index);
+            Object[] tail = Arrays.copyOfRange(leaf.elements, index, leaf.size);
+            return new Node[] {new Leaf(head, head.length), new Leaf(tail, tail.length)};
+        }
+        Branch b = (Branch) n;
+        int leftSize = b.left.size;
+        if (index < leftSize) {
+            Node[] parts = split(b.left, index);
+            parts[1] = join(parts[1], b.right);
+            return parts;
+        }
+        if (index > leftSize) {
+            Node[] parts = split(b.right, index - leftSize);
+            parts[0] = join(b.left, parts[0]);
+            return parts;
+        }
+        return new Node[] {b.left, b.right};
+    }
+
+    /**
+     * Builds a balanced tree over the specified elements, in O(n) time.
+     */
+    private static Node build(Object[] a) {
+        if (a.length == 0) {
+            return null;
+        }
+        int leaves = (a.length + MAX_LEAF - 1) / MAX_LEAF;
+        return build(a, 0, leaves, leaves);
+    }
+
+    /**
+     * Builds a tree over leaves [lo, hi) of the array, which is spread evenly over the specified number of leaves,
+     * so that every leaf holds at least MIN_LEAF elements unless there is only one.
+     * Splitting the leaf range in half keeps sibling heights within one of each other.
+     */
+    private static Node build(Object[] a, int lo, int hi, int leaves) {
+        if (hi - lo == 1) {
+            int from = (int) ((long) lo * a.length / leaves), to = (int) ((long) hi * a.length / leaves);
+            return new Leaf(Arrays.copyOfRange(a, from, to, Object[].class), to - from);
+        }
+        int mid = (lo + hi) >>> 1;
+        return new Branch(build(a, lo, mid, leaves), build(a, mid, hi, leaves));
+    }
+
+    // Positional access
+
+    @Override
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    /**
+     * Returns the leaf holding the element at the specified index,
+     * and stores the index of its first element in start[0].
+     */
+    private Leaf leafFor(int index, int[] start) {
+        Node n = root;
+        int base = 0;
+        while (n instanceof Branch) {
+            Branch b = (Branch) n;
+            if (index - base < b.left.size) {
+                n = b.left;
+            } else {
+                base += b.left.size;
+                n = b.right;
+            }
+        }
+        start[0] = base;
+        return (Leaf) n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        rangeCheck(index);
+        Node n = root;
+        while (n instanceof Branch) {
+            Branch b = (Branch) n;
+            if (index < b.left.size) {
+                n = b.left;
+            } else {
+                index -= b.left.size;
+                n = b.right;
+            }
+        }
+        return (E) ((Leaf) n).elements[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        rangeCheck(index);
+        Node n = root;
+        while (n instanceof Branch) {
+            Branch b = (Branch) n;
+            if (index < b.left.size) {
+                n = b.left;
+            } else {
+                index -= b.left.size;
+                n = b.right;
+            }
+        }
+        Object[] es = ((Leaf) n).elements;
+        E oldValue = (E) es[index];
+        es[index] = element;
+        return oldValue;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this list, in O(log n) time.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public void add(int index, E element) {
+        rangeCheckForAdd(index);
+        modCount++;
+        if (root == null) {
+            Object[] es = new Object[8];
+            es[0] = element;
+            root = new Leaf(es, 1);
+        } else {
+            root = insert(root, index, element);
+        }
+    }
+
+    private static Node insert(Node n, int index, Object element) {
+        if (n instanceof Leaf) {
+            Leaf leaf = (Leaf) n;
+            int size = leaf.size;
+            if (size < MAX_LEAF) {
+                if (size == leaf.elements.length) {
+                    leaf.elements = Arrays.copyOf(leaf.elements, Math.min(MAX_LEAF, Math.max(8, size << 1)));
+                }
+                System.arraycopy(leaf.elements, index, leaf.elements, index + 1, size - index);
+                leaf.elements[index] = element;
+                leaf.size++;
+                return leaf;
+            }
+            // full leaf: split it in two halves and insert into the proper one
+            int half = MAX_LEAF >>> 1;
+            Object[] right = new Object[MAX_LEAF];
+            System.arraycopy(leaf.elements, half, right, 0, MAX_LEAF - half);
+            Arrays.fill(leaf.elements, half, MAX_LEAF, null);
+            leaf.size = half;
+            Leaf r = new Leaf(right, MAX_LEAF - half);
+            if (index <= half) {
+                insert(leaf, index, element);
+            } else {
+                insert(r, index - half, element);
+            }
+            return new Branch(leaf, r);
+        }
+        Branch b = (Branch) n;
+        if (index <= b.left.size) {
+            b.left = insert(b.left, index, element);
+        } else {
+            b.right = insert(b.right, index - b.left.size, element);
+        }
+        return rebalance(b);
+    }
+
+    /**
+     * Removes the element at the specified position in this list, in O(log n) time.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index >= size()).
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        rangeCheck(index);
+        modCount++;
+        Object[] removed = new Object[1];
+        root = delete(root, index, removed);
+        return (E) removed[0];
+    }
+
+    /**
+     * Removes the element at index below n, storing it in removed[0].
+     * @return the new subtree, or null if it became empty.
+     */
+    private static Node delete(Node n, int index, Object[] removed) {
+        if (n instanceof Leaf) {
+            Leaf leaf = (Leaf) n;
+            removed[0] = leaf.elements[index];
+            int numMoved = leaf.size - index - 1;
+            if (numMoved > 0) {
+                System.arraycopy(leaf.elements, index + 1, leaf.elements, index, numMoved);
+            }
+            leaf.elements[--leaf.size] = null;
+            return leaf.size == 0 ? null : leaf;
+        }
+        Branch b = (Branch) n;
+        if (index < b.left.size) {
+            Node l = delete(b.left, index, removed);
+            if (l == null) {
+                return b.right;
+            }
+            b.left = l;
+            if (l instanceof Leaf && l.size < MIN_LEAF) {
+                b.right = refill((Leaf) l, b.right, true);
+                if (l.size == 0) {
+                    return b.right;
+                }
+            }
+        } else {
+            Node r = delete(b.right, index - b.left.size, removed);
+            if (r == null) {
+                return b.left;
+            }
+            b.right = r;
+            if (r instanceof Leaf && r.size < MIN_LEAF) {
+                b.left = refill((Leaf) r, b.left, false);
+                if (r.size == 0) {
+                    return b.left;
+                }
+            }
+        }
+        return rebalance(b);
+    }
+
+    /**
+     * Mends a leaf that delete left with fewer than MIN_LEAF elements, using the adjacent leaf of its sibling subtree:
+     * the two are merged as join does when they fit in one leaf, which leaves the small leaf empty for the caller to drop,
+     * and otherwise they share their elements.
+     * @param before whether the small leaf comes before the sibling.
+     * @return the sibling subtree, with its sizes updated.
+     */
+    private static Node refill(Leaf small, Node sibling, boolean before) {
+        if (sibling instanceof Branch) {
+            Branch s = (Branch) sibling;
+            if (before) {
+                s.left = refill(small, s.left, true);
+            } else {
+                s.right = refill(small, s.right, false);
+            }
+            s.update();
+            return s;
+        }
+        Leaf a = (Leaf) sibling;
+        if (small.size + a.size <= MAX_LEAF) {
+            Leaf merged = before ? merge(small, a) : merge(a, small);
+            small.size = 0;
+            return merged;
+        }
+        if (before) {
+            share(small, a);
+        } else {
+            share(a, small);
+        }
+        return a;
+    }
+
+    // Bulk operations
+
+    /**
+     * Inserts all the elements in the specified collection into this list, starting at the specified position.
+     * The new elements are built into a balanced tree and joined in, in O(m + log n) time.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        rangeCheckForAdd(index);
+        Node added = build(c.toArray());
+        modCount++;
+        if (added == null) {
+            return false;
+        }
+        Node[] parts = split(root, index);
+        root = joinAtSeam(joinAtSeam(parts[0], added), parts[1]);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * Removes the elements between fromIndex, inclusive, and toIndex, exclusive,
+     * by splitting the range out of the tree and joining the remaining parts, in O(log n) time.
+     * The leaves the cuts leave on either side are merged or refilled like those of remove(int).
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || toIndex < fromIndex) {
+            throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size());
+        }
+        modCount++;
+        Node[] head = split(root, fromIndex);
+        Node[] tail = split(head[1], toIndex - fromIndex);
+        root = joinAtSeam(head[0], tail[1]);
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        root = null;
+    }
+
+    /**
+     * Removes the elements from the specified index to the end of this list and returns them as a new list,
+     * in O(log n) time. The nodes are moved, not copied.
+     * @param index the index of the first element to move to the returned list.
+     * @return a list holding the former elements [index, size()) of this list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    public TreeList<E> splitOff(int index) {
+        rangeCheckForAdd(index);
+        modCount++;
+        Node[] parts = split(root, index);
+        root = mendEdge(parts[0], false);
+        return new TreeList<>(mendEdge(parts[1], true));
+    }
+
+    /**
+     * Moves all the elements of the specified list to the end of this list, in O(log n) time,
+     * leaving the specified list empty. The nodes are moved, not copied.
+     * @param other the list whose elements are appended to this list.
+     * @throws NullPointerException if the specified list is null.
+     * @throws IllegalArgumentException if the specified list is this list.
+     */
+    public void concat(TreeList<? extends E> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot concatenate a list with itself");
+        }
+        modCount++;
+        other.modCount++;
+        root = joinAtSeam(root, other.root);
+        other.root = null;
+    }
+
+    // Traversal
+
+    @Override
+    public Object[] toArray() {
+        Object[] r = new Object[size()];
+        fill(root, r, 0);
+        return r;
+    }
+
+    private static void fill(Node n, Object[] a, int offset) {
+        while (n instanceof Branch) {
+            Branch b = (Branch) n;
+            fill(b.left, a, offset);
+            offset += b.left.size;
+            n = b.right;
+        }
+        if (n != null) {
+            System.arraycopy(((Leaf) n).elements, 0, a, offset, n.size);
+        }
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Iterator<E> it = iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            if (Objects.equals(o, it.next())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order,
+     * walking the leaves of the tree without creating an iterator.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        forEach(root, action, expectedModCount);
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEach(Node n, Consumer<? super E> action, int expectedModCount) {
+        while (n instanceof Branch) {
+            Branch b = (Branch) n;
+            forEach(b.left, action, expectedModCount);
+            n = b.right;
+        }
+        if (n != null) {
+            Leaf leaf = (Leaf) n;
+            for (int i = 0; modCount == expectedModCount && i < leaf.size; i++) {
+                action.accept((E) leaf.elements[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this list in proper sequence.
+     * The iterator reads each leaf in turn, descending from the root once per leaf.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new LeafItr();
+    }
+
+    private class LeafItr implements Iterator<E> {
+
+        int cursor;
+
+        int lastRet = -1;
+
+        int expectedModCount = modCount;
+
+        /**
+         * The leaf holding the element at cursor, or null if it has to be looked up again.
+         */
+        Leaf leaf;
+
+        /**
+         * List index of the first element of leaf.
+         */
+        int leafStart;
+
+        private final int[] start = new int[1];
+
+        @Override
+        public boolean hasNext() {
+            return cursor != size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForModification();
+            int i = cursor;
+            if (i >= size()) {
+                throw new NoSuchElementException();
+            }
+            if (leaf == null || i - leafStart >= leaf.size) {
+                leaf = leafFor(i, start);
+                leafStart = start[0];
+            }
+            cursor = i + 1;
+            return (E) leaf.elements[(lastRet = i) - leafStart];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            TreeList.this.remove(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            leaf = null;
+            expectedModCount = modCount;
+        }
+
+        final void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private void rangeCheckForAdd(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+        }
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: " + index + ", Size: " + size();
+    }
+}
@@ -0,0 +1,459 @@
+package com.zhaohang.java.util;
+
+import java.util.*;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Unrolled doubly-linked list implementation of the List interface.
+ * Each node holds a small array of elements instead of a single one, so the list allocates
+ * one node per few dozen elements rather than one per element,
+ * and a traversal reads the elements of a node from one contiguous array.
+ *
+ * Inserting or removing at the cursor of a ListIterator takes constant time:
+ * only the elements of the cursor's node are shifted, and their number is bounded by the node capacity.
+ * A full node is split in two halves, and a node that drops below half full is merged with its successor
+ * when the two fit in one node, so that nodes stay at least about half full.
+ * Positional access (get, set, add and remove at an index) walks the nodes from the nearer end of the list,
+ * which takes time proportional to the distance divided by the node capacity.
+ *
+ * Permits all elements, including null.
+ * Note that this implementation is not synchronized.
+ * The iterators returned by this class's iterator and listIterator methods are fail-fast.
+ *
+ * This class is a member of Java Collection Framework.
+ * @param <E> the type of elements held in this collection.
+ */
+public class UnrolledLinkedList<E> extends AbstractSequentialList<E> {
+
+    /**
+     * Default number of elements per node.
+     */
+    private static final int DEFAULT_NODE_CAPACITY = 32;
+
+    /**
+     * Number of elements each node can hold.
+     */
+    private final int nodeCapacity;
+
+    private transient int size = 0;
+
+    /**
+     * Pointer to first node. Null if and only if the list is empty; no node is ever left empty.
+     */
+    private transient Node first;
+
+    /**
+     * Pointer to last node.
+     */
+    private transient Node last;
+
+    /**
+     * Constructs an empty list with the default node capacity of 32 elements.
+     */
+    public UnrolledLinkedList() {
+        this.nodeCapacity = DEFAULT_NODE_CAPACITY;
+    }
+
+    /**
+     * Constructs an empty list whose nodes hold the specified number of elements.
+     * @param nodeCapacity the number of elements per node.
+     * @throws IllegalArgumentException if the node capacity is less than 2.
+     */
+    public UnrolledLinkedList(int nodeCapacity) {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException("Illegal node capacity: " + nodeCapacity);
+        }
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    /**
+     * Constructs a list containing the elements of the specified collection,
+     * in the order they are returned by the collection's iterator.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    public UnrolledLinkedList(Collection<? extends E> c) {
+        this();
+        addAll(c);
+    }
+
+    private final class Node {
+        final Object[] elements = new Object[nodeCapacity];
+        int count;
+        Node prev;
+        Node next;
+    }
+
+    /**
+     * Links a new, empty node after the specified node (or as the only node if it is null).
+     */
+    private Node linkAfter(Node node) {
+        Node n = new Node();
+        n.prev = node;
+        if (node == null) {
+            first = last = n;
+        } else {
+            n.next = node.next;
+            if (node.next == null) {
+                last = n;
+            } else {
+                node.next.prev = n;
+            }
+            node.next = n;
+        }
+        return n;
+    }
+
+    private void unlink(Node node) {
+        Node prev = node.prev, next = node.next;
+        if (prev == null) {
+            first = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            last = prev;
+        } else {
+            next.prev = prev;
+        }
+        node.prev = node.next = null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends the specified element to the end of this list, in amortized constant time.
+     * @return true (as specified by Collection.add).
+     */
+    @Override
+    public boolean add(E e) {
+        Node l = last;
+        if (l == null || l.count == nodeCapacity) {
+            l = linkAfter(l);
+        }
+        l.elements[l.count++] = e;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Appends all the elements in the specified collection to the end of this list,
+     * filling the last node and then whole new nodes with array copies.
+     * @throws NullPointerException if the specified collection is null.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        int n = a.length;
+        if (n == 0) {
+            return false;
+        }
+        modCount++;
+        int done = 0;
+        Node l = last;
+        while (done < n) {
+            if (l == null || l.count == nodeCapacity) {
+                l = linkAfter(l);
+            }
+            int k = Math.min(n - done, nodeCapacity - l.count);
+            System.arraycopy(a, done, l.elements, l.count, k);
+            l.count += k;
+            done += k;
+        }
+        size += n;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        // Clearing all the links between nodes is "unnecessary", but helps a generational GC
+        // if the discarded nodes inhabit more than one generation
+        for (Node x = first; x != null; ) {
+            Node next = x.next;
+            Arrays.fill(x.elements, 0, x.count, null);
+            x.prev = x.next = null;
+            x = next;
+        }
+        first = last = null;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int i = 0;
+        for (Node x = first; x != null; x = x.next) {
+            System.arraycopy(x.elements, 0, result, i, x.count);
+            i += x.count;
+        }
+        return result;
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order, walking the node arrays directly.
+     * @throws NullPointerException if the specified action is null.
+     * @throws ConcurrentModificationException if this list was structurally modified during the traversal.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        for (Node x = first; x != null && modCount == expectedModCount; x = x.next) {
+            final Object[] es = x.elements;
+            for (int i = 0, n = x.count; i < n; i++) {
+                action.accept((E) es[i]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a list iterator over the elements in this list (in proper sequence), starting at the specified position.
+     * The iterator's add and remove methods take time bounded by the node capacity.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 || index > size()).
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new ListItr(index);
+    }
+
+    private class ListItr implements ListIterator<E> {
+
+        /**
+         * The cursor sits before elements[offset] of node; offset == node.count means after the last element of node.
+         * Node is null only while the list is empty.
+         */
+        private Node node;
+        private int offset;
+        private int nextIndex;
+
+        /**
+         * Position of the element returned by the last call to next or previous; lastNode is null if there is none.
+         */
+        private Node lastNode;
+        private int lastOffset;
+        private boolean lastWasNext;
+
+        private int expectedModCount = modCount;
+
+        ListItr(int index) {
+            nextIndex = index;
+            if (index == size) {
+                node = last;
+                offset = last == null ? 0 : last.count;
+            } else if (index < (size >> 1)) {
+                Node x = first;
+                while (index >= x.count) {
+                    index -= x.count;
+                    x = x.next;
+                }
+                node = x;
+                offset = index;
+            } else {
+                Node x = last;
+                int base = size - x.count;
+                while (index < base) {
+                    x = x.prev;
+                    base -= x.count;
+                }
+                node = x;
+                offset = index - base;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (offset == node.count) {
+                node = node.next;
+                offset = 0;
+            }
+            lastNode = node;
+            lastOffset = offset;
+            lastWasNext = true;
+            nextIndex++;
+            return (E) node.elements[offset++];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            if (offset == 0) {
+                node = node.prev;
+                offset = node.count;
+            }
+            offset--;
+            nextIndex--;
+            lastNode = node;
+            lastOffset = offset;
+            lastWasNext = false;
+            return (E) node.elements[offset];
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        /**
+         * Removes the last element returned, shifting only the rest of its node.
+         * A node left empty is unlinked, and a node left less than half full absorbs its successor if they fit together.
+         */
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastNode == null) {
+                throw new IllegalStateException();
+            }
+            Node n = lastNode;
+            int i = lastOffset;
+            int numMoved = n.count - i - 1;
+            if (numMoved > 0) {
+                System.arraycopy(n.elements, i + 1, n.elements, i, numMoved);
+            }
+            n.elements[--n.count] = null;
+            if (lastWasNext) {
+                nextIndex--;
+            }
+            // the cursor now sits where the removed element was
+            node = n;
+            offset = i;
+            if (n.count == 0) {
+                Node next = n.next, prev = n.prev;
+                unlink(n);
+                if (next != null) {
+                    node = next;
+                    offset = 0;
+                } else {
+                    node = prev;
+                    offset = prev == null ? 0 : prev.count;
+                }
+            } else if (n.count < (nodeCapacity >> 1) && n.next != null && n.count + n.next.count <= nodeCapacity) {
+                Node next = n.next;
+                System.arraycopy(next.elements, 0, n.elements, n.count, next.count);
+                n.count += next.count;
+                unlink(next);
+            }
+            size--;
+            modCount++;
+            expectedModCount = modCount;
+            lastNode = null;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastNode == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            lastNode.elements[lastOffset] = e;
+        }
+
+        /**
+         * Inserts the element at the cursor, shifting only the rest of the cursor's node.
+         * A full node is split in two halves first; at the end of a full node, a new node is started instead.
+         */
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            Node n = node;
+            int i = offset;
+            if (n == null) {
+                n = linkAfter(null);
+                i = 0;
+            } else if (n.count == nodeCapacity) {
+                if (i == nodeCapacity) {
+                    if (n.next != null && n.next.count < nodeCapacity) {
+                        n = n.next;
+                    } else {
+                        n = linkAfter(n);
+                    }
+                    i = 0;
+                } else {
+                    int half = nodeCapacity >> 1;
+                    Node right = linkAfter(n);
+                    int moved = n.count - half;
+                    System.arraycopy(n.elements, half, right.elements, 0, moved);
+                    Arrays.fill(n.elements, half, n.count, null);
+                    right.count = moved;
+                    n.count = half;
+                    if (i > half) {
+                        n = right;
+                        i -= half;
+                    }
+                }
+            }
+            int numMoved = n.count - i;
+            if (numMoved > 0) {
+                System.arraycopy(n.elements, i, n.elements, i + 1, numMoved);
+            }
+            n.elements[i] = e;
+            n.count++;
+            node = n;
+            offset = i + 1;
+            nextIndex++;
+            size++;
+            modCount++;
+            expectedModCount = modCount;
+            lastNode = null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            while (modCount == expectedModCount && nextIndex < size) {
+                if (offset == node.count) {
+                    node = node.next;
+                    offset = 0;
+                }
+                lastNode = node;
+                lastOffset = offset;
+                lastWasNext = true;
+                nextIndex++;
+                action.accept((E) node.elements[offset++]);
+            }
+            checkForComodification();
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
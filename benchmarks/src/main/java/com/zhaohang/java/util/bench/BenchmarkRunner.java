@@ -0,0 +1,32 @@
+package com.zhaohang.java.util.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar.
+ * Accepts the usual JMH command line options and always adds the gc profiler,
+ * which reports the allocation rate (gc.alloc.rate, gc.alloc.rate.norm) and the GC counts and times of every benchmark.
+ *
+ * Build and run with:
+ *      mvn -B package
+ *      java -jar benchmarks/target/benchmarks.jar [regexp] [JMH options]
+ * e.g. java -jar benchmarks/target/benchmarks.jar ListBenchmark -p size=10000 -rf json
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
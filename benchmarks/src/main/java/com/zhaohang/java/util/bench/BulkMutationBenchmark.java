@@ -0,0 +1,71 @@
+package com.zhaohang.java.util.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares operations that destroy the contents of the list: sort, removeIf and clear.
+ * The list is rebuilt before every invocation, so sizes are kept large enough
+ * for the per-invocation setup overhead of JMH to be negligible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class BulkMutationBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"ArrayList", "java.util.ArrayList"})
+    String impl;
+
+    @Param({"Integer", "String"})
+    String elementType;
+
+    private Object[] values;
+
+    private List<Object> list;
+
+    @Setup(Level.Trial)
+    public void createValues() {
+        values = Lists.values(elementType, size);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        list = Lists.create(impl, values);
+    }
+
+    @Benchmark
+    public List<Object> sort() {
+        list.sort(null);
+        return list;
+    }
+
+    @Benchmark
+    public boolean removeIfHalf() {
+        return list.removeIf(o -> (o.hashCode() & 1) == 0);
+    }
+
+    @Benchmark
+    public List<Object> clear() {
+        list.clear();
+        return list;
+    }
+}
@@ -0,0 +1,113 @@
+package com.zhaohang.java.util.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the read-mostly and non-destructive operations of this project's lists with their java.util equivalents,
+ * over several sizes and element types.
+ * Each trial builds its list once; benchmarks that change the list leave it with the same contents.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ListBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    @Param({"ArrayList", "java.util.ArrayList"})
+    String impl;
+
+    @Param({"Integer", "String"})
+    String elementType;
+
+    private Object[] values;
+
+    private Object missing;
+
+    private int[] indices;
+
+    private List<Object> list;
+
+    @Setup
+    public void setUp() {
+        values = Lists.values(elementType, size);
+        missing = Lists.missing(elementType);
+        indices = Lists.indices(size, 1024);
+        list = Lists.create(impl, values);
+    }
+
+    @Benchmark
+    public List<Object> add() {
+        List<Object> l = Lists.create(impl);
+        for (Object v : values) {
+            l.add(v);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (int i : indices) {
+            bh.consume(list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Object o : list) {
+            bh.consume(o);
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        list.forEach(bh::consume);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return list.contains(missing);
+    }
+
+    @Benchmark
+    public int indexOfLast() {
+        return list.indexOf(values[size - 1]);
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return list.toArray();
+    }
+
+    @Benchmark
+    public Object removeAndInsertMiddle() {
+        Object o = list.remove(size / 2);
+        list.add(size / 2, o);
+        return o;
+    }
+
+    @Benchmark
+    public List<Object> addAll() {
+        List<Object> l = Lists.create(impl);
+        l.addAll(list);
+        return l;
+    }
+}
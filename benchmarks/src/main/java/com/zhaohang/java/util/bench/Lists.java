@@ -0,0 +1,95 @@
+package com.zhaohang.java.util.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates the lists and element values compared by the benchmarks.
+ * Every list implementation of this project is also a java.util.List,
+ * so the benchmarks run the same code against it and against the java.util equivalent.
+ */
+final class Lists {
+
+    /**
+     * Seed for all random data, so that every fork measures the same input.
+     */
+    static final long SEED = 42L;
+
+    private Lists() {}
+
+    /**
+     * Returns a new, empty list of the named implementation.
+     * @param impl "ArrayList" for this project's ArrayList, or "java.util.ArrayList" / "java.util.LinkedList".
+     */
+    static <E> List<E> create(String impl) {
+        switch (impl) {
+            case "ArrayList":
+                return new com.zhaohang.java.util.ArrayList<>();
+            case "java.util.ArrayList":
+                return new java.util.ArrayList<>();
+            case "java.util.LinkedList":
+                return new java.util.LinkedList<>();
+            default:
+                throw new IllegalArgumentException("Unknown list implementation: " + impl);
+        }
+    }
+
+    /**
+     * Returns a new list of the named implementation holding the specified values, in order.
+     */
+    static <E> List<E> create(String impl, E[] values) {
+        List<E> list = create(impl);
+        list.addAll(Arrays.asList(values));
+        return list;
+    }
+
+    /**
+     * Returns size distinct values of the named element type, in random order.
+     * @param elementType "Integer" or "String".
+     */
+    static Object[] values(String elementType, int size) {
+        Random random = new Random(SEED);
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = value(elementType, i);
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object t = values[i];
+            values[i] = values[j];
+            values[j] = t;
+        }
+        return values;
+    }
+
+    /**
+     * Returns a value of the named element type that is not among the ones returned by values.
+     */
+    static Object missing(String elementType) {
+        return value(elementType, -1);
+    }
+
+    private static Object value(String elementType, int i) {
+        switch (elementType) {
+            case "Integer":
+                return i;
+            case "String":
+                return "element-" + i;
+            default:
+                throw new IllegalArgumentException("Unknown element type: " + elementType);
+        }
+    }
+
+    /**
+     * Returns count random indices into a list of the specified size.
+     */
+    static int[] indices(int size, int count) {
+        Random random = new Random(SEED);
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = random.nextInt(size);
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,120 @@
+package com.zhaohang.java.util.bench;
+
+import com.zhaohang.java.util.IntList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares IntList against lists of boxed Integer.
+ * Run with the gc profiler to see the allocation per operation (gc.alloc.rate.norm) next to the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class PrimitiveListBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    private IntList ints;
+
+    private List<Integer> boxed;
+
+    private List<Integer> jdkBoxed;
+
+    @Setup
+    public void setUp() {
+        ints = new IntList(size);
+        boxed = Lists.create("ArrayList");
+        jdkBoxed = Lists.create("java.util.ArrayList");
+        for (int i = 0; i < size; i++) {
+            ints.addInt(i);
+            boxed.add(i);
+            jdkBoxed.add(i);
+        }
+    }
+
+    @Benchmark
+    public IntList addIntList() {
+        IntList l = new IntList();
+        for (int i = 0; i < size; i++) {
+            l.addInt(i);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public List<Integer> addArrayList() {
+        List<Integer> l = Lists.create("ArrayList");
+        for (int i = 0; i < size; i++) {
+            l.add(i);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public List<Integer> addJdkArrayList() {
+        List<Integer> l = Lists.create("java.util.ArrayList");
+        for (int i = 0; i < size; i++) {
+            l.add(i);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public long sumIntList() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += ints.getInt(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumArrayList() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += boxed.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumJdkArrayList() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += jdkBoxed.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int indexOfIntList() {
+        return ints.indexOfInt(size - 1);
+    }
+
+    @Benchmark
+    public int indexOfArrayList() {
+        return boxed.indexOf(size - 1);
+    }
+
+    @Benchmark
+    public int indexOfJdkArrayList() {
+        return jdkBoxed.indexOf(size - 1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.zhaohang.java.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the Bloom filters attached to ArrayList and ArrayDeque never change an answer,
+ * whether the collection is modified between lookups or read by several threads at once.
+ */
+class BloomFilterTest {
+
+    @Test
+    void filteredListAnswersLikeAnUnfilteredOne() {
+        Random r = new Random(3);
+        ArrayList<Integer> filtered = new ArrayList<>();
+        java.util.ArrayList<Integer> plain = new java.util.ArrayList<>();
+        filtered.attachBloomFilter(0.01);
+        for (int op = 0; op < 20_000; op++) {
+            int v = r.nextInt(5_000);
+            switch (r.nextInt(5)) {
+                case 0:
+                    filtered.add(v);
+                    plain.add(v);
+                    break;
+                case 1:
+                    if (!plain.isEmpty()) {
+                        int i = r.nextInt(plain.size());
+                        filtered.set(i, v);
+                        plain.set(i, v);
+                    }
+                    break;
+                case 2:
+                    filtered.remove((Integer) v);
+                    plain.remove((Integer) v);
+                    break;
+                default:
+                    assertEquals(plain.contains(v), filtered.contains(v));
+                    assertEquals(plain.indexOf(v), filtered.indexOf(v));
+                    assertEquals(plain.lastIndexOf(v), filtered.lastIndexOf(v));
+                    break;
+            }
+        }
+        assertTrue(filtered.containsAll(List.of(plain.get(0), plain.get(plain.size() - 1))));
+    }
+
+    @Test
+    void filteredDequeAnswersLikeAnUnfilteredOne() {
+        Random r = new Random(4);
+        ArrayDeque<Integer> filtered = new ArrayDeque<>();
+        java.util.ArrayDeque<Integer> plain = new java.util.ArrayDeque<>();
+        filtered.attachBloomFilter(0.01);
+        for (int op = 0; op < 20_000; op++) {
+            int v = r.nextInt(5_000);
+            switch (r.nextInt(5)) {
+                case 0:
+                    filtered.addLast(v);
+                    plain.addLast(v);
+                    break;
+                case 1:
+                    filtered.addFirst(v);
+                    plain.addFirst(v);
+                    break;
+                case 2:
+                    assertEquals(plain.pollFirst(), filtered.pollFirst());
+                    break;
+                default:
+                    assertEquals(plain.contains(v), filtered.contains(v));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Several threads look up present elements of an unmodified list right after a filter is attached,
+     * so they all find the filter in need of its first build at the same time.
+     */
+    @Test
+    @Timeout(120)
+    void concurrentReadersNeverSeeAFalseNegative() throws Exception {
+        final int size = 200_000;
+        ArrayList<Integer> list = new ArrayList<>();
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+            deque.add(i);
+        }
+        for (int run = 0; run < 10; run++) {
+            list.attachBloomFilter(0.01);
+            deque.attachBloomFilter(0.01);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] readers = new Thread[4];
+            for (int t = 0; t < readers.length; t++) {
+                final int seed = run * readers.length + t;
+                readers[t] = new Thread(() -> {
+                    try {
+                        Random r = new Random(seed);
+                        start.await();
+                        for (int i = 0; i < 500; i++) {
+                            // small values keep the linear scans behind a positive answer short
+                            int v = r.nextInt(size / 100);
+                            assertTrue(list.contains(v), "list lost " + v);
+                            assertEquals(v, list.indexOf(v));
+                            assertTrue(deque.contains(v), "deque lost " + v);
+                            assertFalse(list.contains(size + v));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                readers[t].start();
+            }
+            start.countDown();
+            for (Thread t : readers) {
+                t.join();
+            }
+            if (failure.get() != null) {
+                throw new AssertionError(failure.get());
+            }
+            list.detachBloomFilter();
+            deque.detachBloomFilter();
+        }
+    }
+}
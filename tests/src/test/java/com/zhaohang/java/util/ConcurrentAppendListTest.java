@@ -0,0 +1,220 @@
+package com.zhaohang.java.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential checks of ConcurrentAppendList against java.util.ArrayList across several chunk boundaries,
+ * and multi-threaded checks that concurrent producers lose nothing and readers only ever see published elements.
+ */
+class ConcurrentAppendListTest {
+
+    @Test
+    void appendsMatchArrayList() {
+        Random r = new Random(11);
+        List<Integer> expected = new ArrayList<>();
+        ConcurrentAppendList<Integer> actual = new ConcurrentAppendList<>();
+        // 32 + 64 + ... : 5000 elements span eight chunks
+        while (expected.size() < 5_000) {
+            int v = r.nextInt(1_000);
+            switch (r.nextInt(4)) {
+                case 0: {
+                    List<Integer> block = new ArrayList<>();
+                    for (int i = 0, n = r.nextInt(100); i < n; i++) {
+                        block.add(r.nextInt(1_000));
+                    }
+                    assertEquals(expected.addAll(block), actual.addAll(block));
+                    break;
+                }
+                case 1:
+                    if (!expected.isEmpty()) {
+                        int i = r.nextInt(expected.size());
+                        assertEquals(expected.set(i, v), actual.set(i, v));
+                    }
+                    break;
+                case 2:
+                    expected.add(expected.size(), v);
+                    actual.add(actual.size(), v);
+                    break;
+                default:
+                    assertEquals(expected.add(v), actual.add(v));
+                    break;
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, new ArrayList<>(actual));
+        assertArrayEquals(expected.toArray(), actual.toArray());
+        List<Integer> seen = new ArrayList<>();
+        actual.forEach(seen::add);
+        assertEquals(expected, seen);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+        for (int v = 0; v < 1_000; v += 37) {
+            assertEquals(expected.indexOf(v), actual.indexOf(v));
+            assertEquals(expected.lastIndexOf(v), actual.lastIndexOf(v));
+            assertEquals(expected.contains(v), actual.contains(v));
+        }
+    }
+
+    @Test
+    void constructorCopiesTheCollection() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            source.add(i);
+        }
+        assertEquals(source, new ArrayList<>(new ConcurrentAppendList<>(source)));
+        assertTrue(new ConcurrentAppendList<Integer>().isEmpty());
+    }
+
+    @Test
+    void rejectsRemovalInsertionAndNull() {
+        ConcurrentAppendList<Integer> list = new ConcurrentAppendList<>(List.of(1, 2, 3));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove((Integer) 1));
+        assertThrows(UnsupportedOperationException.class, () -> list.removeIf(x -> x == 2));
+        assertThrows(UnsupportedOperationException.class, () -> list.removeAll(List.of(1)));
+        assertThrows(UnsupportedOperationException.class, () -> list.retainAll(List.of(1)));
+        assertThrows(UnsupportedOperationException.class, list::clear);
+        assertThrows(UnsupportedOperationException.class, () -> list.add(0, 4));
+        assertThrows(NullPointerException.class, () -> list.add(null));
+        assertThrows(NullPointerException.class, () -> list.set(0, null));
+        assertThrows(NullPointerException.class, () -> list.addAll(Arrays.asList(4, null)));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(list));
+        assertFalse(list.contains(null));
+    }
+
+    @Test
+    void iteratorStopsAtTheSizeWhenCreated() {
+        ConcurrentAppendList<Integer> list = new ConcurrentAppendList<>(List.of(1, 2, 3));
+        java.util.Iterator<Integer> it = list.iterator();
+        list.add(4);
+        List<Integer> seen = new ArrayList<>();
+        it.forEachRemaining(seen::add);
+        assertEquals(List.of(1, 2, 3), seen);
+        assertEquals(4, list.size());
+    }
+
+    /**
+     * Producers append disjoint ranges with add and addAll while readers walk the list.
+     * Every element must end up in the list exactly once, and every index below a size a reader has seen must hold an element.
+     */
+    @Test
+    @Timeout(60)
+    void concurrentProducersLoseNothing() throws Exception {
+        final int producers = 8;
+        final int perProducer = 20_000;
+        ConcurrentAppendList<Integer> list = new ConcurrentAppendList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                    int i = 0;
+                    while (i < perProducer) {
+                        if (i % 100 == 0 && i + 10 <= perProducer) {
+                            List<Integer> block = new ArrayList<>();
+                            for (int j = 0; j < 10; j++) {
+                                block.add(base + i + j);
+                            }
+                            list.addAll(block);
+                            i += 10;
+                        } else {
+                            list.add(base + i++);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            threads[p].start();
+        }
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    start.await();
+                    while (list.size() < producers * perProducer) {
+                        int n = list.size();
+                        if (n > 0) {
+                            assertNotNull(list.get(n - 1));
+                        }
+                        int[] count = new int[1];
+                        list.forEach(e -> count[0]++);
+                        assertTrue(count[0] >= n);
+                        assertTrue(list.toArray().length >= n);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers[r].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (Thread t : readers) {
+            t.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        Object[] actual = list.toArray();
+        Arrays.sort(actual);
+        Object[] expected = new Object[producers * perProducer];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i;
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Each producer's own elements must appear in the order it added them.
+     */
+    @Test
+    @Timeout(60)
+    void eachProducerKeepsItsOrder() throws Exception {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        ConcurrentAppendList<long[]> list = new ConcurrentAppendList<>();
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    list.add(new long[] {id, i});
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long[] next = new long[producers];
+        for (long[] e : list) {
+            assertEquals(next[(int) e[0]]++, e[1]);
+        }
+        for (long n : next) {
+            assertEquals(perProducer, n);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.zhaohang.java.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.zhaohang.java.util.TestThreads.anyAlive;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential checks of ConcurrentBag against a java.util.ArrayList used as a multiset,
+ * and multi-threaded checks that concurrent adders, removers and drainers neither lose nor duplicate elements.
+ */
+class ConcurrentBagTest {
+
+    /**
+     * Returns the elements of the bag sorted, for comparison with the sorted model.
+     */
+    private static Object[] sorted(ConcurrentBag<Integer> bag) {
+        Object[] a = bag.toArray();
+        Arrays.sort(a);
+        return a;
+    }
+
+    private static Object[] sorted(List<Integer> model) {
+        Object[] a = model.toArray();
+        Arrays.sort(a);
+        return a;
+    }
+
+    @Test
+    void randomOperationsMatchMultiset() {
+        Random r = new Random(5);
+        for (int round = 0; round < 100; round++) {
+            List<Integer> model = new ArrayList<>();
+            ConcurrentBag<Integer> bag = new ConcurrentBag<>(1 + r.nextInt(8));
+            for (int op = 0; op < 200; op++) {
+                int v = r.nextInt(30);
+                switch (r.nextInt(10)) {
+                    case 0: {
+                        ArrayDeque<Integer> c = new ArrayDeque<>();
+                        c.add(v);
+                        c.add(v + 1);
+                        c.add(v);
+                        model.addAll(List.of(v, v + 1, v));
+                        assertTrue(bag.addAll(c));
+                        break;
+                    }
+                    case 1:
+                        assertEquals(model.remove((Integer) v), bag.remove(v));
+                        break;
+                    case 2:
+                        assertEquals(model.removeIf(x -> x % 7 == v % 7), bag.removeIf(x -> x % 7 == v % 7));
+                        break;
+                    case 3: {
+                        RobinHoodHashSet<Integer> c = new RobinHoodHashSet<>();
+                        c.add(v);
+                        c.add(v + 5);
+                        assertEquals(model.removeAll(List.of(v, v + 5)), bag.removeAll(c));
+                        break;
+                    }
+                    case 4: {
+                        if (r.nextInt(10) == 0) {
+                            RobinHoodHashSet<Integer> c = new RobinHoodHashSet<>();
+                            for (int i = v; i < v + 20; i++) {
+                                c.add(i);
+                            }
+                            assertEquals(model.removeIf(x -> x < v || x >= v + 20), bag.retainAll(c));
+                        }
+                        break;
+                    }
+                    case 5: {
+                        Iterator<Integer> it = bag.iterator();
+                        while (it.hasNext()) {
+                            if (it.next() == v) {
+                                it.remove();
+                                model.remove((Integer) v);
+                            }
+                        }
+                        break;
+                    }
+                    case 6:
+                        if (r.nextInt(20) == 0) {
+                            List<Integer> drained = new ArrayList<>();
+                            assertEquals(model.size(), bag.drain(drained::add));
+                            assertArrayEquals(sorted(model), sorted(drained));
+                            model.clear();
+                        }
+                        break;
+                    case 7:
+                        if (r.nextInt(20) == 0) {
+                            bag.clear();
+                            model.clear();
+                        }
+                        break;
+                    default:
+                        model.add(v);
+                        assertTrue(bag.add(v));
+                        break;
+                }
+                assertEquals(model.size(), bag.size());
+                assertEquals(model.isEmpty(), bag.isEmpty());
+                assertEquals(model.contains(v), bag.contains(v));
+                assertArrayEquals(sorted(model), sorted(bag));
+            }
+            List<Integer> seen = new ArrayList<>();
+            bag.forEach(seen::add);
+            assertArrayEquals(sorted(model), sorted(seen));
+            assertArrayEquals(sorted(model), sorted(Arrays.asList(bag.toArray(new Integer[0]))));
+        }
+    }
+
+    @Test
+    void permitsNullAndDuplicates() {
+        ConcurrentBag<Integer> bag = new ConcurrentBag<>();
+        bag.add(null);
+        bag.add(null);
+        bag.add(1);
+        bag.add(1);
+        assertEquals(4, bag.size());
+        assertTrue(bag.contains(null));
+        assertTrue(bag.remove(null));
+        assertTrue(bag.remove(null));
+        assertFalse(bag.remove(null));
+        assertTrue(bag.remove(1));
+        assertEquals(1, bag.size());
+    }
+
+    @Test
+    void rejectsIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBag<Integer>(0));
+        ConcurrentBag<Integer> bag = new ConcurrentBag<>();
+        assertThrows(NullPointerException.class, () -> bag.removeIf(null));
+        assertThrows(NullPointerException.class, () -> bag.drain(null));
+        assertThrows(IllegalStateException.class, () -> bag.iterator().remove());
+    }
+
+    /**
+     * Adders add disjoint ranges while a drainer keeps emptying the bag.
+     * Every element must be drained or left in the bag exactly once.
+     */
+    @Test
+    @Timeout(60)
+    void concurrentAddersAndDrainer() throws Exception {
+        final int adders = 8;
+        final int perAdder = 20_000;
+        ConcurrentBag<Integer> bag = new ConcurrentBag<>();
+        List<Integer> drained = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[adders];
+        for (int a = 0; a < adders; a++) {
+            final int base = a * perAdder;
+            threads[a] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perAdder; i++) {
+                        bag.add(base + i);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            threads[a].start();
+        }
+        Thread drainer = new Thread(() -> {
+            try {
+                start.await();
+                while (anyAlive(threads)) {
+                    bag.drain(drained::add);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+        drainer.start();
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        drainer.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        bag.drain(drained::add);
+        assertTrue(bag.isEmpty());
+        Object[] expected = new Object[adders * perAdder];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i;
+        }
+        assertArrayEquals(expected, sorted(drained));
+    }
+
+    /**
+     * Adders add disjoint ranges while removers keep removing odd elements through removeIf, remove and the iterator.
+     * No even element may be lost, and the size must be exact once every thread has finished.
+     */
+    @Test
+    @Timeout(60)
+    void concurrentAddersAndRemovers() throws Exception {
+        final int adders = 4;
+        final int perAdder = 20_000;
+        ConcurrentBag<Integer> bag = new ConcurrentBag<>(4);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[adders];
+        for (int a = 0; a < adders; a++) {
+            final int base = a * perAdder;
+            threads[a] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perAdder; i++) {
+                        bag.add(base + i);
+                        if (i % 1_000 == 1) {
+                            bag.remove(base + i);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            threads[a].start();
+        }
+        Thread[] removers = new Thread[2];
+        for (int r = 0; r < removers.length; r++) {
+            final boolean useIterator = r == 0;
+            removers[r] = new Thread(() -> {
+                try {
+                    start.await();
+                    while (anyAlive(threads)) {
+                        if (useIterator) {
+                            Iterator<Integer> it = bag.iterator();
+                            while (it.hasNext()) {
+                                if (it.next() % 2 == 1) {
+                                    it.remove();
+                                }
+                            }
+                        } else {
+                            bag.removeIf(x -> x % 2 == 1);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            removers[r].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (Thread t : removers) {
+            t.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        bag.removeIf(x -> x % 2 == 1);
+        Object[] expected = new Object[adders * perAdder / 2];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = 2 * i;
+        }
+        assertArrayEquals(expected, sorted(bag));
+        assertEquals(expected.length, bag.size());
+    }
+}
@@ -0,0 +1,334 @@
+package com.zhaohang.java.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.zhaohang.java.util.TestThreads.anyAlive;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Differential checks of CopyOnWriteArrayList and its subList views against java.util.ArrayList,
+ * and multi-threaded checks that concurrent writers lose no updates and readers never see a partial write.
+ */
+class CopyOnWriteArrayListTest {
+
+    /**
+     * Applies the same random operation to both lists and checks they still agree.
+     */
+    private static void randomOperation(Random r, List<Integer> expected, List<Integer> actual) {
+        int v = r.nextInt(20);
+        int n = expected.size();
+        switch (r.nextInt(14)) {
+            case 0:
+                assertEquals(expected.add(v), actual.add(v));
+                break;
+            case 1: {
+                int i = r.nextInt(n + 1);
+                expected.add(i, v);
+                actual.add(i, v);
+                break;
+            }
+            case 2:
+                if (n > 0) {
+                    int i = r.nextInt(n);
+                    assertEquals(expected.set(i, v), actual.set(i, v));
+                }
+                break;
+            case 3:
+                if (n > 0) {
+                    int i = r.nextInt(n);
+                    assertEquals(expected.remove(i), actual.remove(i));
+                }
+                break;
+            case 4:
+                assertEquals(expected.remove((Integer) v), actual.remove((Integer) v));
+                break;
+            case 5: {
+                List<Integer> c = List.of(v, v + 1, v + 2);
+                assertEquals(expected.addAll(c), actual.addAll(c));
+                break;
+            }
+            case 6: {
+                int i = r.nextInt(n + 1);
+                List<Integer> c = List.of(v, v + 1);
+                assertEquals(expected.addAll(i, c), actual.addAll(i, c));
+                break;
+            }
+            case 7:
+                assertEquals(expected.removeIf(x -> x % 5 == v % 5), actual.removeIf(x -> x % 5 == v % 5));
+                break;
+            case 8: {
+                List<Integer> c = List.of(v, v + 3, v + 7);
+                assertEquals(expected.removeAll(c), actual.removeAll(c));
+                break;
+            }
+            case 9: {
+                Set<Integer> c = new HashSet<>(List.of(1, 2, 3, 5, 8, 13, v));
+                assertEquals(expected.retainAll(c), actual.retainAll(c));
+                break;
+            }
+            case 10:
+                expected.replaceAll(x -> (x + v) % 20);
+                actual.replaceAll(x -> (x + v) % 20);
+                break;
+            case 11:
+                expected.sort(null);
+                actual.sort(null);
+                break;
+            case 12:
+                if (n > 0) {
+                    int from = r.nextInt(n);
+                    int to = from + r.nextInt(n - from + 1);
+                    expected.subList(from, to).clear();
+                    actual.subList(from, to).clear();
+                }
+                break;
+            default:
+                assertEquals(expected.indexOf(v), actual.indexOf(v));
+                assertEquals(expected.lastIndexOf(v), actual.lastIndexOf(v));
+                assertEquals(expected.contains(v), actual.contains(v));
+                break;
+        }
+        assertEquals(expected, new ArrayList<>(actual));
+        assertEquals(expected.size(), actual.size());
+    }
+
+    @Test
+    void randomOperationsMatchArrayList() {
+        Random r = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<Integer> expected = new ArrayList<>();
+            CopyOnWriteArrayList<Integer> actual = new CopyOnWriteArrayList<>();
+            for (int op = 0; op < 100; op++) {
+                randomOperation(r, expected, actual);
+            }
+            assertArrayEquals(expected.toArray(), actual.toArray());
+            assertArrayEquals(expected.toArray(new Integer[0]), actual.toArray(new Integer[0]));
+        }
+    }
+
+    @Test
+    void subListOperationsMatchArrayList() {
+        Random r = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0, n = r.nextInt(30); i < n; i++) {
+                expected.add(r.nextInt(20));
+            }
+            CopyOnWriteArrayList<Integer> actual = new CopyOnWriteArrayList<>(expected);
+            int from = r.nextInt(expected.size() + 1);
+            int to = from + r.nextInt(expected.size() - from + 1);
+            List<Integer> expectedView = expected.subList(from, to);
+            List<Integer> actualView = actual.subList(from, to);
+            if (r.nextBoolean()) {
+                int nestedFrom = r.nextInt(expectedView.size() + 1);
+                int nestedTo = nestedFrom + r.nextInt(expectedView.size() - nestedFrom + 1);
+                expectedView = expectedView.subList(nestedFrom, nestedTo);
+                actualView = actualView.subList(nestedFrom, nestedTo);
+            }
+            for (int op = 0; op < 20; op++) {
+                randomOperation(r, expectedView, actualView);
+                assertEquals(expected, new ArrayList<>(actual));
+            }
+        }
+    }
+
+    @Test
+    void subListDetectsModificationOfTheList() {
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>(List.of(0, 1, 2, 3, 4, 5));
+        List<Integer> view = list.subList(1, 4);
+        list.remove(0);
+        list.remove(0);
+        list.remove(0);
+        assertThrows(ConcurrentModificationException.class, view::size);
+        assertThrows(ConcurrentModificationException.class, () -> view.get(1));
+        assertThrows(ConcurrentModificationException.class, () -> view.add(9));
+        assertThrows(ConcurrentModificationException.class, view::iterator);
+    }
+
+    @Test
+    void subListIteratorIsBoundedSnapshot() {
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>(List.of(0, 1, 2, 3, 4, 5));
+        ListIterator<Integer> it = list.subList(1, 4).listIterator(1);
+        list.set(2, 20);
+        List<Integer> seen = new ArrayList<>();
+        it.forEachRemaining(seen::add);
+        assertEquals(List.of(2, 3), seen);
+        assertEquals(3, it.nextIndex());
+        assertEquals(3, it.previous());
+        assertThrows(UnsupportedOperationException.class, it::remove);
+    }
+
+    @Test
+    void iteratorsWorkOnASnapshot() {
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>(List.of(1, 2, 3));
+        java.util.Iterator<Integer> it = list.iterator();
+        list.clear();
+        list.add(4);
+        List<Integer> seen = new ArrayList<>();
+        it.forEachRemaining(seen::add);
+        assertEquals(List.of(1, 2, 3), seen);
+        assertThrows(UnsupportedOperationException.class, () -> list.listIterator().set(5));
+    }
+
+    @Test
+    void failedReplaceAllAndMutateLeaveTheListUnchanged() {
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>(List.of(1, 2, 3));
+        assertThrows(IllegalStateException.class, () -> list.replaceAll(x -> {
+            if (x == 2) {
+                throw new IllegalStateException();
+            }
+            return x * 10;
+        }));
+        assertThrows(IllegalStateException.class, () -> list.mutate(l -> {
+            l.clear();
+            throw new IllegalStateException();
+        }));
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(list));
+        list.mutate(l -> {
+            l.add(4);
+            l.remove(0);
+        });
+        assertEquals(List.of(2, 3, 4), new ArrayList<>(list));
+    }
+
+    @Test
+    void permitsNull() {
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>();
+        list.add(null);
+        list.add(1);
+        assertNull(list.get(0));
+        assertEquals(0, list.indexOf(null));
+        assertTrue(list.remove(null));
+        assertFalse(list.contains(null));
+    }
+
+    /**
+     * Writers append disjoint even and odd values while another thread keeps removing the odd ones.
+     * No write may be lost, and the bulk removals must not fail on the concurrently changing size.
+     */
+    @Test
+    @Timeout(60)
+    void concurrentWritersAndBulkRemovals() throws Exception {
+        final int writers = 4;
+        final int perWriter = 2_000;
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            final int base = w * perWriter;
+            threads[w] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        list.add(base + i);
+                        if (i % 64 == 0) {
+                            list.remove(Integer.valueOf(-1));
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            threads[w].start();
+        }
+        Thread remover = new Thread(() -> {
+            try {
+                start.await();
+                while (anyAlive(threads)) {
+                    list.removeIf(x -> x % 2 == 1);
+                    list.removeAll(Set.of(1, 3, 5));
+                    list.add(-1);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+        remover.start();
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        remover.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        list.removeIf(x -> x < 0 || x % 2 == 1);
+        Object[] actual = list.toArray();
+        Arrays.sort(actual);
+        Object[] expected = new Object[writers * perWriter / 2];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = 2 * i;
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * A writer replaces every element at once while readers check that they only ever see lists of equal elements.
+     */
+    @Test
+    @Timeout(60)
+    void readersNeverSeeAPartialWrite() throws Exception {
+        CopyOnWriteArrayList<Integer> list = new CopyOnWriteArrayList<>(java.util.Collections.nCopies(1_000, 0));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                if (i % 3 == 0) {
+                    list.replaceAll(x -> x + 1);
+                } else if (i % 3 == 1) {
+                    list.mutate(l -> l.replaceAll(x -> x + 1));
+                } else {
+                    list.subList(0, list.size()).replaceAll(x -> x + 1);
+                }
+            }
+        });
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    while (writer.isAlive()) {
+                        Object[] snapshot = list.toArray();
+                        for (Object e : snapshot) {
+                            assertEquals(snapshot[0], e);
+                        }
+                        int first = list.get(0);
+                        for (int e : list) {
+                            assertTrue(e >= first);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+        }
+        writer.start();
+        for (Thread t : readers) {
+            t.start();
+        }
+        writer.join();
+        for (Thread t : readers) {
+            t.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(java.util.Collections.nCopies(1_000, 2_000), new ArrayList<>(list));
+    }
+}
@@ -0,0 +1,21 @@
+package com.zhaohang.java.util;
+
+/**
+ * Helpers shared by the multi-threaded tests.
+ */
+final class TestThreads {
+
+    private TestThreads() {}
+
+    /**
+     * Returns true if any of the specified threads is still running.
+     */
+    static boolean anyAlive(Thread... threads) {
+        for (Thread t : threads) {
+            if (t.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}